@@ -0,0 +1,81 @@
+package com.devs.api.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.SAXException;
+
+import javax.xml.validation.Schema;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation cost of generated DEVS models against the "DEVS Formalization Model" XSD seeded by V3__schemas.sql.
+ * {@code cold} compiles the schema on every call, as uploads did before compiled schemas were cached; {@code warm}
+ * reuses one compiled schema. Run with {@code ./gradlew jmh}; allocation rates come from the gc profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class XMLValidationBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int components;
+
+    private byte[] xsdBytes;
+    private byte[] xmlBytes;
+    private Schema compiledSchema;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SAXException {
+        try (InputStream xsd = getClass().getResourceAsStream("/devs-formalization-model.xsd")) {
+            xsdBytes = xsd.readAllBytes();
+        }
+        xmlBytes = generateModel(components);
+        compiledSchema = XMLValidation.compileSchema(xsdBytes);
+
+        ValidationResult result = XMLValidation.validateXMLSchema(compiledSchema, xmlBytes, XMLValidation.FAIL_FAST);
+        if (!result.isValid()) {
+            throw new IllegalStateException("Generated model is not valid: " + result.getErrorMessage());
+        }
+    }
+
+    @Benchmark
+    public ValidationResult cold() {
+        return XMLValidation.validateXMLSchema(xsdBytes, xmlBytes, XMLValidation.FAIL_FAST);
+    }
+
+    @Benchmark
+    public ValidationResult warm() {
+        return XMLValidation.validateXMLSchema(compiledSchema, xmlBytes, XMLValidation.FAIL_FAST);
+    }
+
+    static byte[] generateModel(int components) {
+        StringBuilder xml = new StringBuilder(components * 96);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<devsModel>\n");
+        for (int i = 0; i < components; i++) {
+            xml.append("  <component>Component").append(i).append("</component>\n");
+        }
+        xml.append("  <connections>\n");
+        for (int i = 0; i < components; i++) {
+            xml.append("    <connection source=\"Component").append(i)
+                    .append("\" target=\"Component").append((i + 1) % components).append("\"/>\n");
+        }
+        xml.append("  </connections>\n</devsModel>\n");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,550 @@
+package com.devs.api.cache;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of non-negative ints, compressed the way Roaring bitmaps are: values are grouped by their upper 16
+ * bits, and each group is stored as a sorted array while it is sparse and as a 65536-bit bitmap once it holds more
+ * than {@value #ARRAY_MAX} values. Set operations work group by group, so their cost follows the size of the data
+ * rather than the range of the values.
+ * <p>
+ * Updates return a new bitmap that shares every group except the one changed, so a bitmap can be read from any thread
+ * while a writer publishes its successor.
+ */
+public final class CompressedBitmap {
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+    private static final CompressedBitmap EMPTY = new CompressedBitmap(new char[0], new Container[0]);
+
+    private final char[] keys;
+    private final Container[] containers;
+
+    private CompressedBitmap(char[] keys, Container[] containers) {
+        this.keys = keys;
+        this.containers = containers;
+    }
+
+    public static CompressedBitmap empty() {
+        return EMPTY;
+    }
+
+    public static CompressedBitmap of(int... values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        if (sorted.length > 0) {
+            checkValue(sorted[0]);
+        }
+
+        char[] keys = new char[sorted.length];
+        Container[] containers = new Container[sorted.length];
+        int count = 0;
+        int start = 0;
+        while (start < sorted.length) {
+            char key = high(sorted[start]);
+            int end = start;
+            char[] lows = new char[0];
+            int size = 0;
+            while (end < sorted.length && high(sorted[end]) == key) {
+                if (size == 0 || lows[size - 1] != low(sorted[end])) {
+                    if (size == lows.length) {
+                        lows = Arrays.copyOf(lows, Math.max(4, size * 2));
+                    }
+                    lows[size++] = low(sorted[end]);
+                }
+                end++;
+            }
+            keys[count] = key;
+            containers[count] = ArrayContainer.of(Arrays.copyOf(lows, size));
+            count++;
+            start = end;
+        }
+        return new CompressedBitmap(Arrays.copyOf(keys, count), Arrays.copyOf(containers, count));
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, high(value));
+        return index >= 0 && containers[index].contains(low(value));
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (Container container : containers) {
+            cardinality += container.cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    public CompressedBitmap with(int value) {
+        checkValue(value);
+        int index = Arrays.binarySearch(keys, high(value));
+        if (index >= 0) {
+            Container updated = containers[index].with(low(value));
+            return updated == containers[index] ? this : replace(index, updated);
+        }
+        int insertAt = -index - 1;
+        char[] newKeys = new char[keys.length + 1];
+        Container[] newContainers = new Container[containers.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, insertAt);
+        System.arraycopy(containers, 0, newContainers, 0, insertAt);
+        newKeys[insertAt] = high(value);
+        newContainers[insertAt] = new ArrayContainer(new char[]{low(value)});
+        System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+        System.arraycopy(containers, insertAt, newContainers, insertAt + 1, containers.length - insertAt);
+        return new CompressedBitmap(newKeys, newContainers);
+    }
+
+    public CompressedBitmap without(int value) {
+        int index = value < 0 ? -1 : Arrays.binarySearch(keys, high(value));
+        if (index < 0) {
+            return this;
+        }
+        Container updated = containers[index].without(low(value));
+        return updated == containers[index] ? this : replace(index, updated);
+    }
+
+    public CompressedBitmap and(CompressedBitmap other) {
+        Builder result = new Builder(Math.min(keys.length, other.keys.length));
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.add(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result.build();
+    }
+
+    public CompressedBitmap or(CompressedBitmap other) {
+        Builder result = new Builder(keys.length + other.keys.length);
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                result.add(keys[i], containers[i]);
+                i++;
+            } else if (i == keys.length || keys[i] > other.keys[j]) {
+                result.add(other.keys[j], other.containers[j]);
+                j++;
+            } else {
+                result.add(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result.build();
+    }
+
+    public CompressedBitmap andNot(CompressedBitmap other) {
+        Builder result = new Builder(keys.length);
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.keys.length && other.keys[j] == keys[i]) {
+                result.add(keys[i], containers[i].andNot(other.containers[j]));
+            } else {
+                result.add(keys[i], containers[i]);
+            }
+        }
+        return result.build();
+    }
+
+    /**
+     * The cardinality of the intersection, without building it.
+     */
+    public int andCardinality(CompressedBitmap other) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                cardinality += containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * Returns up to {@code limit} values below {@code bound}, largest first.
+     */
+    public int[] descendingBelow(int bound, int limit) {
+        int[] values = new int[Math.max(0, Math.min(limit, cardinality()))];
+        int count = 0;
+        for (int i = keys.length - 1; i >= 0 && count < values.length; i--) {
+            int base = keys[i] << 16;
+            if (base >= bound) {
+                continue;
+            }
+            // Lows at or above this are not below the bound.
+            int lowBound = bound - base > 0xFFFF ? 0x10000 : bound - base;
+            count = containers[i].fillDescending(base, lowBound, values, count);
+        }
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    private CompressedBitmap replace(int index, Container container) {
+        if (container == null) {
+            char[] newKeys = new char[keys.length - 1];
+            Container[] newContainers = new Container[containers.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(containers, 0, newContainers, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(containers, index + 1, newContainers, index, containers.length - index - 1);
+            return new CompressedBitmap(newKeys, newContainers);
+        }
+        Container[] newContainers = containers.clone();
+        newContainers[index] = container;
+        return new CompressedBitmap(keys, newContainers);
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+    }
+
+    private static char high(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+
+    private static final class Builder {
+        private final char[] keys;
+        private final Container[] containers;
+        private int size;
+
+        Builder(int capacity) {
+            keys = new char[capacity];
+            containers = new Container[capacity];
+        }
+
+        void add(char key, Container container) {
+            if (container != null) {
+                keys[size] = key;
+                containers[size] = container;
+                size++;
+            }
+        }
+
+        CompressedBitmap build() {
+            return size == 0 ? EMPTY : new CompressedBitmap(Arrays.copyOf(keys, size), Arrays.copyOf(containers, size));
+        }
+    }
+
+    /**
+     * The values sharing one upper half. Operations return null instead of an empty container.
+     */
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+        abstract boolean contains(char low);
+
+        abstract int cardinality();
+
+        abstract Container with(char low);
+
+        abstract Container without(char low);
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract int andCardinality(Container other);
+
+        /**
+         * Writes the values with a low half below {@code lowBound} into {@code out} from {@code count}, largest first,
+         * until {@code out} is full, and returns the new count.
+         */
+        abstract int fillDescending(int base, int lowBound, int[] out, int count);
+    }
+
+    private static final class ArrayContainer extends Container {
+        private final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        static Container of(char[] values) {
+            if (values.length == 0) {
+                return null;
+            }
+            return values.length > ARRAY_MAX ? BitmapContainer.of(values) : new ArrayContainer(values);
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, low) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        Container with(char low) {
+            int index = Arrays.binarySearch(values, low);
+            if (index >= 0) {
+                return this;
+            }
+            int insertAt = -index - 1;
+            char[] updated = new char[values.length + 1];
+            System.arraycopy(values, 0, updated, 0, insertAt);
+            updated[insertAt] = low;
+            System.arraycopy(values, insertAt, updated, insertAt + 1, values.length - insertAt);
+            return of(updated);
+        }
+
+        @Override
+        Container without(char low) {
+            int index = Arrays.binarySearch(values, low);
+            if (index < 0) {
+                return this;
+            }
+            char[] updated = new char[values.length - 1];
+            System.arraycopy(values, 0, updated, 0, index);
+            System.arraycopy(values, index + 1, updated, index, values.length - index - 1);
+            return of(updated);
+        }
+
+        @Override
+        Container and(Container other) {
+            return filter(other, true);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                return bitmap.or(this);
+            }
+            char[] others = ((ArrayContainer) other).values;
+            char[] merged = new char[values.length + others.length];
+            int i = 0;
+            int j = 0;
+            int size = 0;
+            while (i < values.length || j < others.length) {
+                if (j == others.length || (i < values.length && values[i] < others[j])) {
+                    merged[size++] = values[i++];
+                } else if (i == values.length || values[i] > others[j]) {
+                    merged[size++] = others[j++];
+                } else {
+                    merged[size++] = values[i++];
+                    j++;
+                }
+            }
+            return of(Arrays.copyOf(merged, size));
+        }
+
+        @Override
+        Container andNot(Container other) {
+            return filter(other, false);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int cardinality = 0;
+            for (char value : values) {
+                if (other.contains(value)) {
+                    cardinality++;
+                }
+            }
+            return cardinality;
+        }
+
+        @Override
+        int fillDescending(int base, int lowBound, int[] out, int count) {
+            int index = Arrays.binarySearch(values, (char) Math.min(lowBound, 0xFFFF));
+            int start = lowBound > 0xFFFF ? values.length - 1 : (index >= 0 ? index - 1 : -index - 2);
+            for (int i = start; i >= 0 && count < out.length; i--) {
+                out[count++] = base | values[i];
+            }
+            return count;
+        }
+
+        private Container filter(Container other, boolean keepContained) {
+            char[] kept = new char[values.length];
+            int size = 0;
+            for (char value : values) {
+                if (other.contains(value) == keepContained) {
+                    kept[size++] = value;
+                }
+            }
+            if (size == values.length) {
+                return this;
+            }
+            return of(Arrays.copyOf(kept, size));
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private final int cardinality;
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        static BitmapContainer of(char[] values) {
+            long[] words = new long[WORDS];
+            for (char value : values) {
+                words[value >>> 6] |= 1L << value;
+            }
+            return new BitmapContainer(words, values.length);
+        }
+
+        /**
+         * Wraps the words, switching back to an array once the container is sparse again.
+         */
+        static Container of(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            if (cardinality == 0) {
+                return null;
+            }
+            if (cardinality > ARRAY_MAX) {
+                return new BitmapContainer(words, cardinality);
+            }
+            char[] values = new char[cardinality];
+            int size = 0;
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[size++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values);
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container with(char low) {
+            if (contains(low)) {
+                return this;
+            }
+            long[] updated = words.clone();
+            updated[low >>> 6] |= 1L << low;
+            return new BitmapContainer(updated, cardinality + 1);
+        }
+
+        @Override
+        Container without(char low) {
+            if (!contains(low)) {
+                return this;
+            }
+            long[] updated = words.clone();
+            updated[low >>> 6] &= ~(1L << low);
+            return of(updated);
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer array) {
+                return array.and(this);
+            }
+            long[] others = ((BitmapContainer) other).words;
+            long[] result = new long[WORDS];
+            for (int w = 0; w < WORDS; w++) {
+                result[w] = words[w] & others[w];
+            }
+            return of(result);
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] result = words.clone();
+            if (other instanceof ArrayContainer array) {
+                for (char value : array.values) {
+                    result[value >>> 6] |= 1L << value;
+                }
+            } else {
+                long[] others = ((BitmapContainer) other).words;
+                for (int w = 0; w < WORDS; w++) {
+                    result[w] |= others[w];
+                }
+            }
+            return of(result);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] result = words.clone();
+            if (other instanceof ArrayContainer array) {
+                for (char value : array.values) {
+                    result[value >>> 6] &= ~(1L << value);
+                }
+            } else {
+                long[] others = ((BitmapContainer) other).words;
+                for (int w = 0; w < WORDS; w++) {
+                    result[w] &= ~others[w];
+                }
+            }
+            return of(result);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer array) {
+                return array.andCardinality(this);
+            }
+            long[] others = ((BitmapContainer) other).words;
+            int result = 0;
+            for (int w = 0; w < WORDS; w++) {
+                result += Long.bitCount(words[w] & others[w]);
+            }
+            return result;
+        }
+
+        @Override
+        int fillDescending(int base, int lowBound, int[] out, int count) {
+            for (int low = lowBound - 1; low >= 0 && count < out.length; low--) {
+                long word = words[low >>> 6];
+                // Skip to the highest set bit at or below this position in the word.
+                long masked = word & (-1L >>> (63 - (low & 63)));
+                if (masked == 0) {
+                    low &= ~63;
+                    continue;
+                }
+                low = (low & ~63) + 63 - Long.numberOfLeadingZeros(masked);
+                out[count++] = base | low;
+            }
+            return count;
+        }
+    }
+}
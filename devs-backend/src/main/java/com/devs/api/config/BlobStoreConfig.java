@@ -0,0 +1,32 @@
+package com.devs.api.config;
+
+import com.devs.api.storage.BlobStore;
+import com.devs.api.storage.DatabaseBlobStore;
+import com.devs.api.storage.FileSystemBlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+@Configuration
+public class BlobStoreConfig {
+
+    @Value("${application.blobs.store}")
+    private String store;
+
+    @Value("${application.blobs.filesystem.root}")
+    private String fileSystemRoot;
+
+    @Bean
+    @Primary
+    public BlobStore blobStore(DatabaseBlobStore databaseBlobStore) {
+        return switch (store.toLowerCase(Locale.ROOT)) {
+            case "database" -> databaseBlobStore;
+            case "filesystem" -> new FileSystemBlobStore(Path.of(fileSystemRoot));
+            default -> throw new IllegalArgumentException("Unsupported blob store: " + store);
+        };
+    }
+}
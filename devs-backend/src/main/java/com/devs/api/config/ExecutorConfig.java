@@ -0,0 +1,77 @@
+package com.devs.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${application.validation.pool-size}")
+    private int validationPoolSize;
+
+    @Value("${application.validation.queue-capacity}")
+    private int validationQueueCapacity;
+
+    @Value("${application.validation.revalidation.queue-capacity}")
+    private int revalidationQueueCapacity;
+
+    @Value("${application.models.upload.pool-size}")
+    private int uploadPoolSize;
+
+    @Value("${application.models.upload.queue-capacity}")
+    private int uploadQueueCapacity;
+
+    // Declaring our own executors switches off Spring Boot's default one, so it is recreated here for MVC async
+    // requests and @Async methods.
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor validationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(validationPoolSize);
+        executor.setMaxPoolSize(validationPoolSize);
+        executor.setQueueCapacity(validationQueueCapacity);
+        executor.setThreadNamePrefix("validation-");
+        // When the queue is full the submitting thread validates the task itself, which throttles the producer.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    // Runs revalidation jobs one at a time; each job fans its batches out to the validation executor.
+    @Bean
+    public ThreadPoolTaskExecutor revalidationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(revalidationQueueCapacity);
+        executor.setThreadNamePrefix("revalidation-");
+        return executor;
+    }
+
+    // Validates and stores asynchronous uploads off the request threads. Submissions beyond the queue capacity are
+    // rejected instead of queued without bound.
+    @Bean
+    public ThreadPoolTaskExecutor uploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(uploadPoolSize);
+        executor.setMaxPoolSize(uploadPoolSize);
+        executor.setQueueCapacity(uploadQueueCapacity);
+        executor.setThreadNamePrefix("upload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
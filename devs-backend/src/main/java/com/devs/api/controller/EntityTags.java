@@ -0,0 +1,39 @@
+package com.devs.api.controller;
+
+import com.devs.api.entity.VersionableFile;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.Arrays;
+
+/**
+ * Entity tags for models and schemas, derived from the lock version that JPA raises on every update. A client sends
+ * the tag it last read in If-Match; a write based on an older read fails the same way as one that loses a race at
+ * commit, with an {@link OptimisticLockingFailureException} that the controllers answer with 412.
+ */
+final class EntityTags {
+    private EntityTags() {
+    }
+
+    static String of(VersionableFile file) {
+        return "\"" + file.getLockVersion() + "\"";
+    }
+
+    /**
+     * Checks an If-Match header against the file. A missing header matches, so clients that do not send one keep
+     * working and are only protected against races within the request.
+     */
+    static void checkMatch(String ifMatch, VersionableFile file) {
+        if (ifMatch == null) {
+            return;
+        }
+        String tag = of(file);
+        // If-Match uses strong comparison, so weak tags never match.
+        boolean matches = Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(tag));
+        if (!matches) {
+            throw new OptimisticLockingFailureException(file.getClass().getSimpleName() + " " + file.getId()
+                    + " has changed since it was read");
+        }
+    }
+}
@@ -1,28 +1,60 @@
 package com.devs.api.controller;
 
+import com.devs.api.dto.BulkImportReportDTO;
+import com.devs.api.dto.ComponentUsageDTO;
 import com.devs.api.dto.HistoryDTO;
+import com.devs.api.dto.HistoryPageDTO;
+import com.devs.api.dto.ModelConformanceDTO;
+import com.devs.api.dto.ModelCouplingPageDTO;
 import com.devs.api.dto.ModelDTO;
+import com.devs.api.dto.ModelPageDTO;
+import com.devs.api.dto.ModelSearchPageDTO;
+import com.devs.api.dto.SourceDiffDTO;
+import com.devs.api.dto.TagFilterPageDTO;
+import com.devs.api.dto.UploadJobDTO;
 import com.devs.api.entity.*;
+import com.devs.api.repository.ModelConformanceRepository;
+import com.devs.api.repository.ModelCursor;
+import com.devs.api.repository.ModelFilter;
+import com.devs.api.repository.ModelPageRepository.ModelPage;
+import com.devs.api.repository.ModelSort;
+import com.devs.api.service.BlobService;
+import com.devs.api.service.DiffService;
 import com.devs.api.service.ModelHistoryService;
+import com.devs.api.service.ModelImportService;
+import com.devs.api.service.ModelSearchService;
+import com.devs.api.service.ModelSearchService.SearchPage;
 import com.devs.api.service.ModelService;
+import com.devs.api.service.ModelStructureService;
+import com.devs.api.service.ModelStructureService.CouplingPage;
+import com.devs.api.service.ModelUploadService;
 import com.devs.api.service.SchemaService;
+import com.devs.api.service.TagIndexService;
+import com.devs.api.service.TagIndexService.TagFilterPage;
+import com.devs.api.validation.ModelValidator;
+import com.devs.api.validation.ValidationResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
-import static com.devs.api.validation.XMLValidation.getXMLErrorMessage;
-import static com.devs.api.validation.XMLValidation.validateXMLSchema;
+import static com.devs.api.validation.XMLValidation.FAIL_FAST;
 
 @RestController
 @RequestMapping("/api/models")
@@ -30,12 +62,38 @@ public class ModelController {
     private final ModelService modelService;
     private final ModelHistoryService modelHistoryService;
     private final SchemaService schemaService;
+    private final ModelValidator modelValidator;
+    private final ModelImportService modelImportService;
+    private final ModelConformanceRepository modelConformanceRepository;
+    private final ModelUploadService modelUploadService;
+    private final BlobService blobService;
+    private final DiffService diffService;
+    private final ModelSearchService modelSearchService;
+    private final ModelStructureService modelStructureService;
+    private final TagIndexService tagIndexService;
     private static final Logger LOGGER = LoggerFactory.getLogger(ModelController.class);
 
-    public ModelController(ModelService modelService, ModelHistoryService modelHistoryService, SchemaService schemaService) {
+    @Value("${application.validation.max-errors}")
+    private int maxValidationErrors;
+
+    public ModelController(ModelService modelService, ModelHistoryService modelHistoryService, SchemaService schemaService,
+                           ModelValidator modelValidator, ModelImportService modelImportService,
+                           ModelConformanceRepository modelConformanceRepository,
+                           ModelUploadService modelUploadService, BlobService blobService,
+                           DiffService diffService, ModelSearchService modelSearchService,
+                           ModelStructureService modelStructureService, TagIndexService tagIndexService) {
         this.modelService = modelService;
         this.modelHistoryService = modelHistoryService;
         this.schemaService = schemaService;
+        this.modelValidator = modelValidator;
+        this.modelImportService = modelImportService;
+        this.modelConformanceRepository = modelConformanceRepository;
+        this.modelUploadService = modelUploadService;
+        this.blobService = blobService;
+        this.diffService = diffService;
+        this.modelSearchService = modelSearchService;
+        this.modelStructureService = modelStructureService;
+        this.tagIndexService = tagIndexService;
     }
 
     @PostMapping("/upload")
@@ -44,33 +102,24 @@ public class ModelController {
                                               @RequestParam("description") String description,
                                               @RequestParam("tags") List<String> tags,
                                               @RequestParam("schemaId") String schemaId,
+                                              @RequestParam(value = "failFast", required = false, defaultValue = "false")
+                                              boolean failFast,
                                               Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            Model model = new Model();
-            model.setName(name);
-            model.setDescription(description);
-
-            List<Tag> modelTags = modelService.createOrUpdateTags(tags, user.getId());
-            model.setTags(modelTags);
-
-            model.setCreateDate(new Date());
-            model.setUser(user);
-            model.setVersion(1);
 
-            byte[] xsdSchema = getSchema(schemaId);
-            byte[] xmlSchema = file.getBytes();
+            Optional<Schema> xsdSchema = schemaService.findById(Long.valueOf(schemaId));
+            if (xsdSchema.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Schema not found.");
+            }
 
-            boolean isXMLValid = validateXMLSchema(xsdSchema, xmlSchema);
+            ValidationResult validationResult = modelValidator.validate(file, xsdSchema.get(), getMaxErrors(failFast));
 
-            if (!isXMLValid) {
-                String errorMessage = "XML is not valid according to the XSD. Error: " + getXMLErrorMessage();
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorMessage);
+            if (!validationResult.isValid()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(toErrorMessage(validationResult));
             }
 
-            model.setSourceFile(xmlSchema);
-
-            modelService.save(model);
+            modelService.createModel(name, description, tags, file.getBytes(), user);
 
             return ResponseEntity.ok("Model uploaded successfully!");
         } catch (IOException e) {
@@ -79,6 +128,72 @@ public class ModelController {
         }
     }
 
+    @PostMapping("/upload/async")
+    public ResponseEntity<UploadJobDTO> uploadModelAsync(@RequestParam("file") MultipartFile file,
+                                                         @RequestParam("name") String name,
+                                                         @RequestParam("description") String description,
+                                                         @RequestParam("tags") List<String> tags,
+                                                         @RequestParam("schemaId") String schemaId,
+                                                         @RequestParam(value = "failFast", required = false,
+                                                                 defaultValue = "false") boolean failFast,
+                                                         Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+
+            Optional<Schema> xsdSchema = schemaService.findById(Long.valueOf(schemaId));
+            if (xsdSchema.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+
+            UploadJobDTO job = modelUploadService.submit(file, name, description, tags, xsdSchema.get(),
+                    getMaxErrors(failFast), user);
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (TaskRejectedException e) {
+            LOGGER.warn("Upload queue is full, rejecting upload");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        } catch (IOException e) {
+            LOGGER.error("Error in uploadModelAsync: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/upload/jobs/{jobId}")
+    public ResponseEntity<UploadJobDTO> getUploadJob(@PathVariable String jobId, Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return modelUploadService.getJob(jobId, user.getId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/upload/bulk")
+    public ResponseEntity<BulkImportReportDTO> uploadModels(@RequestParam("file") MultipartFile file,
+                                                            @RequestParam("schemaId") String schemaId,
+                                                            @RequestParam(value = "tags", required = false)
+                                                            List<String> tags,
+                                                            @RequestParam(value = "description", required = false)
+                                                            String description,
+                                                            @RequestParam(value = "failFast", required = false,
+                                                                    defaultValue = "false") boolean failFast,
+                                                            Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+
+            Optional<Schema> xsdSchema = schemaService.findById(Long.valueOf(schemaId));
+            if (xsdSchema.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+
+            BulkImportReportDTO report = modelImportService.importArchive(file, xsdSchema.get(), tags, description,
+                    getMaxErrors(failFast), user);
+
+            return ResponseEntity.ok(report);
+        } catch (IOException e) {
+            LOGGER.error("Error in uploadModels: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PutMapping("/update/{modelId}")
     public ResponseEntity<String> updateModel(@PathVariable("modelId") Long modelId,
                                               @RequestParam(value = "file", required = false)
@@ -90,6 +205,10 @@ public class ModelController {
                                               @RequestParam(value = "description", required = false)
                                               String description,
                                               @RequestParam("schemaId") String schemaId,
+                                              @RequestParam(value = "failFast", required = false, defaultValue = "false")
+                                              boolean failFast,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch,
                                               Authentication authentication) {
         try {
             Optional<Model> optionalModel = modelService.findById(modelId);
@@ -103,6 +222,7 @@ public class ModelController {
             Long userId = user.getId();
 
             checkOwner(authentication, existingModel);
+            EntityTags.checkMatch(ifMatch, existingModel);
 
             if (name != null) {
                 existingModel.setName(name);
@@ -117,29 +237,32 @@ public class ModelController {
                 existingModel.setTags(modelTags);
             }
 
+            ModelHistory modelHistory = null;
             if (file != null && !file.isEmpty()) {
 
-                byte[] xsdSchema = getSchema(schemaId);
-                byte[] xmlSchema = file.getBytes();
+                Optional<Schema> xsdSchema = schemaService.findById(Long.valueOf(schemaId));
+                if (xsdSchema.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Schema not found.");
+                }
 
-                boolean isXMLValid = validateXMLSchema(xsdSchema, xmlSchema);
+                ValidationResult validationResult = modelValidator.validate(file, xsdSchema.get(),
+                        getMaxErrors(failFast));
 
-                if (!isXMLValid) {
-                    String errorMessage = "XML is not valid according to the XSD. Error: " + getXMLErrorMessage();
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorMessage);
+                if (!validationResult.isValid()) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(toErrorMessage(validationResult));
                 }
 
-                if (!Arrays.equals(xmlSchema, existingModel.getSourceFile())) {
+                if (!validationResult.getContentHash().equals(existingModel.getContentHash())) {
+                    byte[] xmlSchema = file.getBytes();
 
                     // Update model history
-                    ModelHistory modelHistory = new ModelHistory();
+                    modelHistory = new ModelHistory();
                     modelHistory.setModel(existingModel);
                     modelHistory.setSourceFile(existingModel.getSourceFile());
                     modelHistory.setVersion(existingModel.getVersion());
                     modelHistory.setCreateDate(existingModel.getCreateDate());
                     modelHistory.setUpdateDate(new Date());
                     modelHistory.setUser(existingModel.getUser());
-                    modelHistoryService.save(modelHistory);
 
                     // Update current model
                     existingModel.setSourceFile(xmlSchema);
@@ -149,9 +272,14 @@ public class ModelController {
             }
 
             existingModel.setUpdateDate(new Date());
-            modelService.save(existingModel);
-
-            return ResponseEntity.ok("Model updated successfully!");
+            modelService.saveWithHistory(existingModel, modelHistory);
+
+            return ResponseEntity.ok().eTag(EntityTags.of(existingModel)).body("Model updated successfully!");
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body("The model was changed by someone else. Reload it and try again.");
         } catch (IOException e) {
             LOGGER.error("Error in updateModel: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to update model.");
@@ -174,6 +302,8 @@ public class ModelController {
             modelService.save(model);
 
             return ResponseEntity.ok("Model deleted successfully!");
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         } catch (Exception e) {
             LOGGER.error("Error in deleteModelById: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to delete model.");
@@ -196,6 +326,8 @@ public class ModelController {
             modelService.save(model);
 
             return ResponseEntity.ok("Model restored successfully!");
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         } catch (Exception e) {
             LOGGER.error("Error in restoreModelFromTrash: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to restore model.");
@@ -208,9 +340,8 @@ public class ModelController {
             User user = (User) authentication.getPrincipal();
             Long userId = user.getId();
 
-            List<Model> models = modelService.getModelsByUserId(userId);
-            List<ModelDTO> modelDTOs = models.stream().filter(m -> m.getDeleteDate() == null)
-                    .map(this::convertToModelDTO).toList();
+            List<Model> models = modelService.getActiveModelsByUserId(userId);
+            List<ModelDTO> modelDTOs = models.stream().map(this::convertToModelSummaryDTO).toList();
 
             return ResponseEntity.ok(modelDTOs);
         } catch (Exception e) {
@@ -225,9 +356,8 @@ public class ModelController {
             User user = (User) authentication.getPrincipal();
             Long userId = user.getId();
 
-            List<Model> models = modelService.getModelsByUserId(userId);
-            List<ModelDTO> modelDTOs = models.stream().filter(m -> m.getDeleteDate() != null)
-                    .map(this::convertToModelDTO).toList();
+            List<Model> models = modelService.getDeletedModelsByUserId(userId);
+            List<ModelDTO> modelDTOs = models.stream().map(this::convertToModelSummaryDTO).toList();
 
             return ResponseEntity.ok(modelDTOs);
         } catch (Exception e) {
@@ -236,6 +366,111 @@ public class ModelController {
         }
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ModelPageDTO> getModelPage(@RequestParam(defaultValue = "false") boolean deleted,
+                                                     @RequestParam(required = false) Boolean favorite,
+                                                     @RequestParam(required = false) List<String> tags,
+                                                     @RequestParam(required = false) String search,
+                                                     @RequestParam(defaultValue = "updated") String sort,
+                                                     @RequestParam(defaultValue = "desc") String direction,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "50") int size,
+                                                     Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            ModelSort modelSort = ModelSort.valueOf(sort.toUpperCase(Locale.ROOT));
+            boolean descending = !"asc".equalsIgnoreCase(direction);
+            ModelCursor after = cursor != null ? ModelCursor.decode(cursor) : null;
+            if (after != null && (after.sort() != modelSort || after.descending() != descending)) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+
+            ModelFilter filter = new ModelFilter(user.getId(), deleted, favorite, tags, search);
+            ModelPage page = modelService.getModelPage(filter, modelSort, descending, after, size);
+            List<ModelDTO> items = page.models().stream().map(this::convertToModelSummaryDTO).toList();
+            String nextCursor = page.next() != null ? page.next().encode() : null;
+
+            return ResponseEntity.ok(new ModelPageDTO(items, nextCursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            LOGGER.error("Error in getModelPage: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ModelSearchPageDTO> searchModels(@RequestParam("q") String query,
+                                                           @RequestParam(defaultValue = "0") int offset,
+                                                           @RequestParam(defaultValue = "20") int size,
+                                                           Authentication authentication) {
+        try {
+            if (query.isBlank()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+            User user = (User) authentication.getPrincipal();
+
+            SearchPage page = modelSearchService.search(user.getId(), query, offset, size);
+            List<ModelDTO> items = page.models().stream().map(this::convertToModelSummaryDTO).toList();
+
+            return ResponseEntity.ok(new ModelSearchPageDTO(items, page.nextOffset()));
+        } catch (Exception e) {
+            LOGGER.error("Error in searchModels: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/components/usage")
+    public ResponseEntity<ComponentUsageDTO> getComponentUsage(@RequestParam("component") String component,
+                                                               Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            long count = modelStructureService.countModelsUsing(user.getId(), component);
+            return ResponseEntity.ok(new ComponentUsageDTO(component, count));
+        } catch (Exception e) {
+            LOGGER.error("Error in getComponentUsage: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/coupling")
+    public ResponseEntity<ModelCouplingPageDTO> getCoupledModels(@RequestParam("source") String source,
+                                                                 @RequestParam("target") String target,
+                                                                 @RequestParam(required = false) Long before,
+                                                                 @RequestParam(defaultValue = "20") int size,
+                                                                 Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            CouplingPage page = modelStructureService.findCoupling(user.getId(), source, target, before, size);
+            List<ModelDTO> items = page.models().stream().map(this::convertToModelSummaryDTO).toList();
+
+            return ResponseEntity.ok(new ModelCouplingPageDTO(items, page.nextBefore()));
+        } catch (Exception e) {
+            LOGGER.error("Error in getCoupledModels: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/tags/query")
+    public ResponseEntity<TagFilterPageDTO> queryModelsByTags(@RequestParam(required = false) List<String> all,
+                                                              @RequestParam(required = false) List<String> any,
+                                                              @RequestParam(required = false) List<String> none,
+                                                              @RequestParam(required = false) Long before,
+                                                              @RequestParam(defaultValue = "20") int size,
+                                                              Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            TagFilterPage page = tagIndexService.filter(user.getId(), orEmpty(all), orEmpty(any), orEmpty(none),
+                    before, size);
+            List<ModelDTO> items = page.models().stream().map(this::convertToModelSummaryDTO).toList();
+
+            return ResponseEntity.ok(new TagFilterPageDTO(items, page.nextBefore(), page.total(), page.facets()));
+        } catch (Exception e) {
+            LOGGER.error("Error in queryModelsByTags: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/{modelId}")
     public ResponseEntity<ModelDTO> getModelById(@PathVariable Long modelId, Authentication authentication) {
         try {
@@ -248,15 +483,149 @@ public class ModelController {
             ModelDTO modelDTO = convertToModelDTO(model);
 
             LOGGER.info("Model listed successfully");
-            return ResponseEntity.ok(modelDTO);
+            return ResponseEntity.ok().eTag(EntityTags.of(model)).body(modelDTO);
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         } catch (Exception e) {
             LOGGER.error("Error in getModelById: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @GetMapping("/{modelId}/content")
+    public ResponseEntity<StreamingResponseBody> getModelContent(@PathVariable Long modelId, HttpServletRequest request,
+                                                                 Authentication authentication) {
+        try {
+            Optional<Model> optionalModel = modelService.findById(modelId);
+            if (optionalModel.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            Model model = optionalModel.get();
+            checkOwner(authentication, model);
+
+            return SourceContentResponses.stream(request, blobService, model.getContentHash(),
+                    model.getName() + ".xml");
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            LOGGER.error("Error in getModelContent: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{modelId}/history")
+    public ResponseEntity<HistoryPageDTO> getModelHistory(@PathVariable Long modelId,
+                                                          @RequestParam(required = false) Integer before,
+                                                          @RequestParam(defaultValue = "20") int size,
+                                                          Authentication authentication) {
+        try {
+            Optional<Model> optionalModel = modelService.findById(modelId);
+            if (optionalModel.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            checkOwner(authentication, optionalModel.get());
+
+            return ResponseEntity.ok(modelHistoryService.getModelHistoryPage(modelId, before, size));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            LOGGER.error("Error in getModelHistory: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{modelId}/history/{version}")
+    public ResponseEntity<HistoryDTO> getModelVersion(@PathVariable Long modelId, @PathVariable Integer version,
+                                                      Authentication authentication) {
+        try {
+            Optional<ModelHistory> optionalModelHistory = modelHistoryService.findByModelIdAndVersion(modelId, version);
+            if (optionalModelHistory.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            checkOwner(authentication, optionalModelHistory.get().getModel());
+
+            return ResponseEntity.ok(HistoryDTO.convertToHistoryDTO(optionalModelHistory.get()));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            LOGGER.error("Error in getModelVersion: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{modelId}/history/{version}/content")
+    public ResponseEntity<StreamingResponseBody> getModelVersionContent(@PathVariable Long modelId,
+                                                                        @PathVariable Integer version,
+                                                                        HttpServletRequest request,
+                                                                        Authentication authentication) {
+        try {
+            Optional<ModelHistory> optionalModelHistory = modelHistoryService.findByModelIdAndVersion(modelId, version);
+            if (optionalModelHistory.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            ModelHistory modelHistory = optionalModelHistory.get();
+            checkOwner(authentication, modelHistory.getModel());
+
+            return SourceContentResponses.stream(request, blobService, modelHistory.getContentHash(),
+                    modelHistory.getModel().getName() + "_v" + version + ".xml");
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            LOGGER.error("Error in getModelVersionContent: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{modelId}/diff")
+    public ResponseEntity<SourceDiffDTO> getModelDiff(@PathVariable Long modelId, @RequestParam Integer from,
+                                                      @RequestParam Integer to, Authentication authentication) {
+        try {
+            Optional<Model> optionalModel = modelService.findById(modelId);
+            if (optionalModel.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            Model model = optionalModel.get();
+            checkOwner(authentication, model);
+
+            Optional<String> fromHash = findContentHash(model, from);
+            Optional<String> toHash = findContentHash(model, to);
+            if (fromHash.isEmpty() || toHash.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+
+            return ResponseEntity.ok(diffService.diff(from, fromHash.get(), to, toHash.get()));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            LOGGER.error("Error in getModelDiff: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{modelId}/conformance")
+    public ResponseEntity<List<ModelConformanceDTO>> getModelConformance(@PathVariable Long modelId,
+                                                                         Authentication authentication) {
+        try {
+            Optional<Model> optionalModel = modelService.findById(modelId);
+            if (optionalModel.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            checkOwner(authentication, optionalModel.get());
+
+            return ResponseEntity.ok(modelConformanceRepository.findByModelId(modelId));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            LOGGER.error("Error in getModelConformance: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PutMapping("/favorite/{modelId}")
-    public ResponseEntity<String> setModelAsFavorite(@PathVariable Long modelId, Authentication authentication) {
+    public ResponseEntity<String> setModelAsFavorite(@PathVariable Long modelId,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                     String ifMatch,
+                                                     Authentication authentication) {
         try {
             Optional<Model> optionalModel = modelService.findById(modelId);
             if (optionalModel.isEmpty()) {
@@ -265,6 +634,7 @@ public class ModelController {
 
             Model model = optionalModel.get();
             checkOwner(authentication, model);
+            EntityTags.checkMatch(ifMatch, model);
 
             if (model.getFavorite() != null) {
                 model.setFavorite(!model.getFavorite());
@@ -275,7 +645,12 @@ public class ModelController {
             model.setUpdateDate(new Date());
             modelService.save(model);
 
-            return ResponseEntity.ok("Model set as favorite!");
+            return ResponseEntity.ok().eTag(EntityTags.of(model)).body("Model set as favorite!");
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body("The model was changed by someone else. Reload it and try again.");
         } catch (Exception e) {
             LOGGER.error("Error in setModelAsFavorite: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to set model as favorite.");
@@ -286,19 +661,24 @@ public class ModelController {
     public ResponseEntity<String> restoreToVersion(
             @PathVariable Long modelId,
             @PathVariable Integer version,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();;
-            restore(modelId, version, user);
-            return ResponseEntity.ok("Model restored successfully!");
+            Model model = restore(modelId, version, user, ifMatch);
+            return ResponseEntity.ok().eTag(EntityTags.of(model)).body("Model restored successfully!");
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body("The model was changed by someone else. Reload it and try again.");
         } catch (Exception e) {
             LOGGER.error("Error in restoreModelToVersion: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to restore model.");
         }
     }
 
-    public void restore(Long modelId, Integer version, User user) {
+    public Model restore(Long modelId, Integer version, User user, String ifMatch) {
         Model model = modelService.findById(modelId).orElseThrow();
+        EntityTags.checkMatch(ifMatch, model);
 
         Optional<ModelHistory> optionalModelHistory = modelHistoryService.findByModelIdAndVersion(modelId, version);
 
@@ -308,13 +688,12 @@ public class ModelController {
 
         ModelHistory modelHistory = optionalModelHistory.get();
         Integer nextVersion = model.getVersion() + 1;
-        Integer nextVersionToHistory = model.getHistory().size() + 1;
 
         ModelHistory newModelHistory = new ModelHistory();
 
         newModelHistory.setModel(model);
         newModelHistory.setSourceFile(model.getSourceFile());
-        newModelHistory.setVersion(nextVersionToHistory);
+        newModelHistory.setVersion(model.getVersion());
         newModelHistory.setCreateDate(model.getCreateDate());
         newModelHistory.setUpdateDate(new Date());
         newModelHistory.setUser(model.getUser());
@@ -324,9 +703,16 @@ public class ModelController {
         model.setBased(modelHistory.getVersion());
         model.setUser(user);
 
+        modelService.saveWithHistory(model, newModelHistory);
+        return model;
+    }
 
-        modelService.save(model);
-        modelHistoryService.save(newModelHistory);
+    // The current version lives on the model row; earlier ones are history rows.
+    private Optional<String> findContentHash(Model model, Integer version) {
+        if (version.equals(model.getVersion())) {
+            return Optional.ofNullable(model.getContentHash());
+        }
+        return modelHistoryService.findByModelIdAndVersion(model.getId(), version).map(ModelHistory::getContentHash);
     }
 
     private void checkOwner(Authentication authentication, Model model) {
@@ -334,38 +720,45 @@ public class ModelController {
         Long userId = user.getId();
 
         if (!model.getUser().getId().equals(userId)) {
-            ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            throw new AccessDeniedException("Model " + model.getId() + " belongs to another user");
         }
     }
 
-    public byte[] getSchema(String schemaId) {
-        Optional<Schema> optionalSchema = schemaService.findById(Long.valueOf(schemaId));
+    private static List<String> orEmpty(List<String> values) {
+        return values == null ? List.of() : values;
+    }
 
-        if (optionalSchema.isEmpty()) {
-            return null;
-        }
+    private int getMaxErrors(boolean failFast) {
+        return failFast ? FAIL_FAST : maxValidationErrors;
+    }
 
-        Schema existingSchema = optionalSchema.get();
-        byte[] xsdSchema = existingSchema.getSourceFile();
+    private String toErrorMessage(ValidationResult validationResult) {
+        return "XML is not valid according to the XSD." + System.lineSeparator() + validationResult.getErrorMessage();
+    }
 
-        return xsdSchema;
+    // Lists leave out the source files, so listing models never reads their blobs; they come with the model by id.
+    private ModelDTO convertToModelSummaryDTO(Model model) {
+        return convertToModelDTO(model, false);
     }
 
     private ModelDTO convertToModelDTO(Model model) {
+        return convertToModelDTO(model, true);
+    }
+
+    private ModelDTO convertToModelDTO(Model model, boolean withSources) {
         ModelDTO modelDTO = new ModelDTO();
         modelDTO.setId(model.getId());
         modelDTO.setName(model.getName());
-        modelDTO.setSourceFile(model.getSourceFile());
+        if (withSources) {
+            modelDTO.setSourceFile(model.getSourceFile());
+        }
         modelDTO.setTags(model.getTags());
         modelDTO.setVersion(model.getVersion());
+        modelDTO.setLockVersion(model.getLockVersion());
         modelDTO.setCreateDate(model.getCreateDate());
         modelDTO.setDeleteDate(model.getDeleteDate());
         modelDTO.setUpdateDate(model.getUpdateDate());
         modelDTO.setFavorite(model.getFavorite());
-        List<HistoryDTO> historyDTOList = model.getHistory().stream()
-                .map(HistoryDTO::convertToHistoryDTO)
-                .collect(Collectors.toList());
-        modelDTO.setHistory(historyDTOList);
         modelDTO.setDescription(model.getDescription());
         modelDTO.setBased(model.getBased());
         modelDTO.setUsername(model.getUser().getUsername());
@@ -1,27 +1,40 @@
 package com.devs.api.controller;
 
 import com.devs.api.dto.HistoryDTO;
+import com.devs.api.dto.HistoryPageDTO;
+import com.devs.api.dto.RevalidationJobDTO;
+import com.devs.api.dto.SchemaCacheStatsDTO;
 import com.devs.api.dto.SchemaDTO;
+import com.devs.api.dto.SourceDiffDTO;
 import com.devs.api.entity.Schema;
 import com.devs.api.entity.SchemaHistory;
 import com.devs.api.entity.User;
+import com.devs.api.service.BlobService;
+import com.devs.api.service.DiffService;
+import com.devs.api.service.RevalidationService;
 import com.devs.api.service.SchemaHistoryService;
 import com.devs.api.service.SchemaService;
+import com.devs.api.validation.ModelValidator;
+import com.devs.api.validation.SchemaCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/schemas")
@@ -30,11 +43,29 @@ public class SchemaController {
 
     private final SchemaHistoryService schemaHistoryService;
 
+    private final SchemaCache schemaCache;
+
+    private final ModelValidator modelValidator;
+
+    private final RevalidationService revalidationService;
+
+    private final BlobService blobService;
+
+    private final DiffService diffService;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(SchemaController.class);
 
-    public SchemaController(SchemaService schemaService, SchemaHistoryService schemaHistoryService) {
+    public SchemaController(SchemaService schemaService, SchemaHistoryService schemaHistoryService,
+                            SchemaCache schemaCache, ModelValidator modelValidator,
+                            RevalidationService revalidationService, BlobService blobService,
+                            DiffService diffService) {
         this.schemaService = schemaService;
         this.schemaHistoryService = schemaHistoryService;
+        this.schemaCache = schemaCache;
+        this.modelValidator = modelValidator;
+        this.revalidationService = revalidationService;
+        this.blobService = blobService;
+        this.diffService = diffService;
     }
 
     @PostMapping("/upload")
@@ -59,6 +90,7 @@ public class SchemaController {
             schema.setSourceFile(fileBytes);
 
             schemaService.save(schema);
+            startDependentRevalidations(schema.getId(), modelValidator.evictName(name));
             return ResponseEntity.ok("Schema uploaded successfully!");
         } catch (Exception e) {
             LOGGER.error("Error in uploadSchema: " + e.getMessage());
@@ -75,6 +107,8 @@ public class SchemaController {
                                                String name,
                                                @RequestParam(value = "description", required = false)
                                                String description,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                               String ifMatch,
                                                Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
@@ -84,6 +118,7 @@ public class SchemaController {
             }
 
             Schema existingSchema = optionalSchema.get();
+            EntityTags.checkMatch(ifMatch, existingSchema);
 
             if (name != null) {
                 existingSchema.setName(name);
@@ -93,19 +128,19 @@ public class SchemaController {
                 existingSchema.setDescription(description);
             }
 
+            SchemaHistory schemaHistory = null;
             if (file != null && !file.isEmpty()) {
                 byte[] fileBytes = file.getBytes();
 
                 if (!Arrays.equals(fileBytes, existingSchema.getSourceFile())) {
                     // Update schema history
-                    SchemaHistory schemaHistory = new SchemaHistory();
+                    schemaHistory = new SchemaHistory();
                     schemaHistory.setSchema(existingSchema);
                     schemaHistory.setSourceFile(existingSchema.getSourceFile());
                     schemaHistory.setVersion(existingSchema.getVersion());
                     schemaHistory.setCreateDate(existingSchema.getCreateDate());
                     schemaHistory.setUpdateDate(new Date());
                     schemaHistory.setUser(existingSchema.getUser());
-                    schemaHistoryService.save(schemaHistory);
 
                     // Update current schema
                     existingSchema.setSourceFile(fileBytes);
@@ -115,9 +150,18 @@ public class SchemaController {
             }
 
             existingSchema.setUpdateDate(new Date());
-            schemaService.save(existingSchema);
+            schemaService.saveWithHistory(existingSchema, schemaHistory);
+            Set<Long> affectedSchemaIds = modelValidator.evict(schemaId);
 
-            return ResponseEntity.ok("Schema updated successfully!");
+            if (schemaHistory != null) {
+                revalidationService.start(existingSchema);
+                startDependentRevalidations(schemaId, affectedSchemaIds);
+            }
+
+            return ResponseEntity.ok().eTag(EntityTags.of(existingSchema)).body("Schema updated successfully!");
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body("The schema was changed by someone else. Reload it and try again.");
         } catch (IOException e) {
             LOGGER.error("Error in updateSchema: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to update schema.");
@@ -137,6 +181,7 @@ public class SchemaController {
 
             schema.setDeleteDate(new Date());
             schemaService.save(schema);
+            modelValidator.evict(schemaId);
 
             return ResponseEntity.ok("Schema deleted successfully!");
         } catch (Exception e) {
@@ -149,19 +194,24 @@ public class SchemaController {
     public ResponseEntity<String> restoreToVersion(
             @PathVariable Long schemaId,
             @PathVariable Integer version,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
     Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            restore(schemaId, version, user);
-            return ResponseEntity.ok("Schema restored successfully!");
+            Schema schema = restore(schemaId, version, user, ifMatch);
+            return ResponseEntity.ok().eTag(EntityTags.of(schema)).body("Schema restored successfully!");
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body("The schema was changed by someone else. Reload it and try again.");
         } catch (Exception e) {
             LOGGER.error("Error in restoreSchemaToVersion: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to restore schema.");
         }
     }
 
-    public void restore(Long schemaId, Integer version, User user) {
+    public Schema restore(Long schemaId, Integer version, User user, String ifMatch) {
         Schema schema = schemaService.findById(schemaId).orElseThrow();
+        EntityTags.checkMatch(ifMatch, schema);
 
         Optional<SchemaHistory> optionalSchemaHistory = schemaHistoryService.findBySchemaIdAndVersion(schemaId, version);
 
@@ -171,12 +221,11 @@ public class SchemaController {
 
         SchemaHistory schemaHistory = optionalSchemaHistory.get();
         Integer nextVersion = schema.getVersion() + 1;
-        Integer nextVersionToHistory = schema.getHistory().size() + 1;
 
         SchemaHistory newSchemaHistory = new SchemaHistory();
         newSchemaHistory.setSchema(schema);
         newSchemaHistory.setSourceFile(schema.getSourceFile());
-        newSchemaHistory.setVersion(nextVersionToHistory);
+        newSchemaHistory.setVersion(schema.getVersion());
         newSchemaHistory.setCreateDate(schema.getCreateDate());
         newSchemaHistory.setUpdateDate(new Date());
         newSchemaHistory.setUser(schema.getUser());
@@ -186,8 +235,54 @@ public class SchemaController {
         schema.setBased(schemaHistory.getVersion());
         schema.setUser(user);
 
-        schemaService.save(schema);
-        schemaHistoryService.save(newSchemaHistory);
+        schemaService.saveWithHistory(schema, newSchemaHistory);
+        Set<Long> affectedSchemaIds = modelValidator.evict(schemaId);
+        revalidationService.start(schema);
+        startDependentRevalidations(schemaId, affectedSchemaIds);
+        return schema;
+    }
+
+    // Schemas that import or include a changed schema validate differently too, so their models are revalidated.
+    private void startDependentRevalidations(Long schemaId, Set<Long> affectedSchemaIds) {
+        for (Long affectedSchemaId : affectedSchemaIds) {
+            if (!affectedSchemaId.equals(schemaId)) {
+                schemaService.findById(affectedSchemaId)
+                        .filter(dependent -> dependent.getDeleteDate() == null)
+                        .ifPresent(revalidationService::start);
+            }
+        }
+    }
+
+    @PostMapping("/{schemaId}/revalidate")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<RevalidationJobDTO> revalidateModels(@PathVariable Long schemaId) {
+        Optional<Schema> optionalSchema = schemaService.findById(schemaId);
+        if (optionalSchema.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        RevalidationJobDTO job = revalidationService.start(optionalSchema.get());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/{schemaId}/revalidation")
+    public ResponseEntity<RevalidationJobDTO> getLatestRevalidation(@PathVariable Long schemaId) {
+        return revalidationService.getLatestJob(schemaId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/revalidation/{jobId}")
+    public ResponseEntity<RevalidationJobDTO> getRevalidation(@PathVariable String jobId) {
+        return revalidationService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<SchemaCacheStatsDTO> getSchemaCacheStats() {
+        return ResponseEntity.ok(schemaCache.getStats());
     }
 
     @GetMapping
@@ -195,7 +290,7 @@ public class SchemaController {
         try {
             List<Schema> schemas = schemaService.findAll();
             List<SchemaDTO> schemaDTOS = schemas.stream().filter(m -> m.getDeleteDate() == null)
-                    .map(this::convertToSchemaDTO).toList();
+                    .map(this::convertToSchemaSummaryDTO).toList();
 
             return ResponseEntity.ok(schemaDTOS);
         } catch (Exception e) {
@@ -203,20 +298,140 @@ public class SchemaController {
         }
     }
 
+    @GetMapping("/{schemaId}")
+    public ResponseEntity<SchemaDTO> getSchemaById(@PathVariable Long schemaId) {
+        try {
+            Optional<Schema> optionalSchema = schemaService.findById(schemaId);
+            if (optionalSchema.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+
+            Schema schema = optionalSchema.get();
+            return ResponseEntity.ok().eTag(EntityTags.of(schema)).body(convertToSchemaDTO(schema));
+        } catch (Exception e) {
+            LOGGER.error("Error in getSchemaById: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{schemaId}/content")
+    public ResponseEntity<StreamingResponseBody> getSchemaContent(@PathVariable Long schemaId,
+                                                                  HttpServletRequest request) {
+        try {
+            Optional<Schema> optionalSchema = schemaService.findById(schemaId);
+            if (optionalSchema.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            Schema schema = optionalSchema.get();
+
+            return SourceContentResponses.stream(request, blobService, schema.getContentHash(),
+                    schema.getName() + ".xsd");
+        } catch (Exception e) {
+            LOGGER.error("Error in getSchemaContent: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{schemaId}/history")
+    public ResponseEntity<HistoryPageDTO> getSchemaHistory(@PathVariable Long schemaId,
+                                                           @RequestParam(required = false) Integer before,
+                                                           @RequestParam(defaultValue = "20") int size) {
+        try {
+            if (schemaService.findById(schemaId).isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+
+            return ResponseEntity.ok(schemaHistoryService.getSchemaHistoryPage(schemaId, before, size));
+        } catch (Exception e) {
+            LOGGER.error("Error in getSchemaHistory: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{schemaId}/history/{version}")
+    public ResponseEntity<HistoryDTO> getSchemaVersion(@PathVariable Long schemaId, @PathVariable Integer version) {
+        try {
+            return schemaHistoryService.findBySchemaIdAndVersion(schemaId, version)
+                    .map(schemaHistory -> ResponseEntity.ok(HistoryDTO.convertToHistoryDTO(schemaHistory)))
+                    .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        } catch (Exception e) {
+            LOGGER.error("Error in getSchemaVersion: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{schemaId}/history/{version}/content")
+    public ResponseEntity<StreamingResponseBody> getSchemaVersionContent(@PathVariable Long schemaId,
+                                                                         @PathVariable Integer version,
+                                                                         HttpServletRequest request) {
+        try {
+            Optional<SchemaHistory> optionalSchemaHistory = schemaHistoryService.findBySchemaIdAndVersion(schemaId,
+                    version);
+            if (optionalSchemaHistory.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            SchemaHistory schemaHistory = optionalSchemaHistory.get();
+
+            return SourceContentResponses.stream(request, blobService, schemaHistory.getContentHash(),
+                    schemaHistory.getSchema().getName() + "_v" + version + ".xsd");
+        } catch (Exception e) {
+            LOGGER.error("Error in getSchemaVersionContent: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{schemaId}/diff")
+    public ResponseEntity<SourceDiffDTO> getSchemaDiff(@PathVariable Long schemaId, @RequestParam Integer from,
+                                                       @RequestParam Integer to) {
+        try {
+            Optional<Schema> optionalSchema = schemaService.findById(schemaId);
+            if (optionalSchema.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            Schema schema = optionalSchema.get();
+
+            Optional<String> fromHash = findContentHash(schema, from);
+            Optional<String> toHash = findContentHash(schema, to);
+            if (fromHash.isEmpty() || toHash.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+
+            return ResponseEntity.ok(diffService.diff(from, fromHash.get(), to, toHash.get()));
+        } catch (Exception e) {
+            LOGGER.error("Error in getSchemaDiff: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private Optional<String> findContentHash(Schema schema, Integer version) {
+        if (version.equals(schema.getVersion())) {
+            return Optional.ofNullable(schema.getContentHash());
+        }
+        return schemaHistoryService.findBySchemaIdAndVersion(schema.getId(), version)
+                .map(SchemaHistory::getContentHash);
+    }
+
+    private SchemaDTO convertToSchemaSummaryDTO(Schema schema) {
+        return convertToSchemaDTO(schema, false);
+    }
+
     private SchemaDTO convertToSchemaDTO(Schema schema) {
+        return convertToSchemaDTO(schema, true);
+    }
+
+    private SchemaDTO convertToSchemaDTO(Schema schema, boolean withSources) {
         SchemaDTO schemaDTO = new SchemaDTO();
         schemaDTO.setId(schema.getId());
         schemaDTO.setName(schema.getName());
-        schemaDTO.setSourceFile(schema.getSourceFile());
+        if (withSources) {
+            schemaDTO.setSourceFile(schema.getSourceFile());
+        }
         schemaDTO.setCreateDate(schema.getCreateDate());
         schemaDTO.setDeleteDate(schema.getDeleteDate());
         schemaDTO.setUpdateDate(schema.getUpdateDate());
         schemaDTO.setDescription(schema.getDescription());
         schemaDTO.setVersion(schema.getVersion());
-        List<HistoryDTO> historyDTOList = schema.getHistory().stream()
-                .map(HistoryDTO::convertToHistoryDTO)
-                .collect(Collectors.toList());
-        schemaDTO.setHistory(historyDTOList);
+        schemaDTO.setLockVersion(schema.getLockVersion());
         schemaDTO.setBased(schema.getBased());
         schemaDTO.setUsername(schema.getUser().getUsername());
         return schemaDTO;
@@ -0,0 +1,167 @@
+package com.devs.api.controller;
+
+import com.devs.api.service.BlobService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams stored source files as raw bytes. The content hash is the strong entity tag, so a client that already holds
+ * a version gets a 304 without the blob being read. A single byte range is served from the uncompressed content;
+ * full responses are gzipped on the fly when the client accepts it, under their own entity tag.
+ */
+final class SourceContentResponses {
+    private static final String GZIP = "gzip";
+    private static final int BUFFER_SIZE = 8192;
+
+    private SourceContentResponses() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> stream(HttpServletRequest request, BlobService blobService,
+                                                        String contentHash, String filename) {
+        if (contentHash == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        String identityTag = "\"" + contentHash + "\"";
+        String gzipTag = "\"" + contentHash + "-" + GZIP + "\"";
+        boolean gzip = acceptsGzip(request);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), identityTag, gzipTag)) {
+            headers.setETag(gzip ? gzipTag : identityTag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        long size = blobService.size(contentHash);
+        headers.setContentType(MediaType.APPLICATION_XML);
+        headers.setContentDisposition(ContentDisposition.inline().filename(filename, StandardCharsets.UTF_8).build());
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(identityTag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                return notSatisfiable(headers, size);
+            }
+            // Several ranges would need a multipart body; the full content is a valid answer to them.
+            if (ranges.size() == 1) {
+                long start;
+                long end;
+                try {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                } catch (IllegalArgumentException e) {
+                    return notSatisfiable(headers, size);
+                }
+                long length = end - start + 1;
+                headers.setETag(identityTag);
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+                headers.setContentLength(length);
+                return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers)
+                        .body(out -> copyRange(blobService, contentHash, out, start, length));
+            }
+        }
+
+        if (gzip) {
+            headers.setETag(gzipTag);
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            return ResponseEntity.ok().headers(headers).body(out -> {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, BUFFER_SIZE);
+                copyRange(blobService, contentHash, gzipOut, 0, size);
+                gzipOut.finish();
+            });
+        }
+        headers.setETag(identityTag);
+        headers.setContentLength(size);
+        return ResponseEntity.ok().headers(headers).body(out -> copyRange(blobService, contentHash, out, 0, size));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> notSatisfiable(HttpHeaders headers, long size) {
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+    }
+
+    private static void copyRange(BlobService blobService, String contentHash, OutputStream out, long start,
+                                  long length) throws IOException {
+        try (InputStream in = blobService.open(contentHash)) {
+            if (in instanceof FileInputStream fileIn) {
+                // An uncompressed payload in the filesystem store is copied from its file channel, starting at the
+                // range rather than reading up to it.
+                transfer(fileIn.getChannel(), out, start, length);
+                return;
+            }
+            in.skipNBytes(start);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long remaining = length;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    break;
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    private static void transfer(FileChannel channel, OutputStream out, long start, long length) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long position = channel.position() + start;
+        long remaining = length;
+        while (remaining > 0) {
+            long sent = channel.transferTo(position, remaining, target);
+            if (sent <= 0) {
+                break;
+            }
+            position += sent;
+            remaining -= sent;
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        return Arrays.stream(acceptEncoding.split(","))
+                .map(encoding -> encoding.replace(" ", "").toLowerCase(Locale.ROOT))
+                .anyMatch(encoding -> encoding.equals(GZIP)
+                        || encoding.startsWith(GZIP + ";") && !encoding.matches(".*;q=0(\\.0*)?$"));
+    }
+
+    // If-None-Match uses weak comparison, and both encodings carry the same content.
+    private static boolean matchesAny(String ifNoneMatch, String identityTag, String gzipTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(identityTag) || tag.equals(gzipTag));
+    }
+}
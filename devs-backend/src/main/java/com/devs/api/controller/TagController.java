@@ -117,7 +117,7 @@ public class TagController {
             }
 
             existingTag.setUpdateDate(new Date());
-            tagService.save(existingTag);
+            tagService.updateTag(existingTag);
 
             return ResponseEntity.ok("Tag updated successfully!");
         } catch (Exception e) {
@@ -0,0 +1,234 @@
+package com.devs.api.diff;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Line diff using the linear-space refinement of Myers' algorithm: the middle snake of a region is found by searching
+ * forward and backward at once, then the parts before and after it are diffed the same way, so memory stays
+ * proportional to the number of lines. A region whose edit cost passes a limit is split at the furthest point either
+ * search reached instead, which bounds the run time on unrelated files at the price of a less minimal result.
+ */
+public final class LineDiff {
+    private static final int MIN_COST_LIMIT = 64;
+    private static final int MAX_COST_LIMIT = 4096;
+    // A split that reaches the cost limit L does on the order of L * L steps and advances about L lines, so diffing
+    // n lines of unrelated text takes about n * L steps. The limit shrinks as inputs grow to keep that near the budget.
+    private static final long WORK_BUDGET = 1L << 24;
+
+    private final int[] from;
+    private final int[] to;
+    private final boolean[] deleted;
+    private final boolean[] inserted;
+    private final int[] forward;
+    private final int[] backward;
+    private final int diagonalOffset;
+    private final int costLimit;
+
+    private LineDiff(int[] from, int[] to, int costLimit) {
+        this.from = from;
+        this.to = to;
+        this.deleted = new boolean[from.length];
+        this.inserted = new boolean[to.length];
+        int diagonals = from.length + to.length + 3;
+        this.forward = new int[diagonals];
+        this.backward = new int[diagonals];
+        this.diagonalOffset = to.length + 1;
+        this.costLimit = costLimit;
+    }
+
+    /**
+     * Compares two sequences of lines. In the result, {@code deleted[i]} is set for each line of {@code from} that is
+     * not in {@code to}, and {@code inserted[j]} for each line of {@code to} that is not in {@code from}.
+     */
+    public static Result diff(List<String> from, List<String> to) {
+        long lines = Math.max(1, from.size() + to.size());
+        return diff(from, to, (int) Math.max(MIN_COST_LIMIT, Math.min(MAX_COST_LIMIT, WORK_BUDGET / lines)));
+    }
+
+    static Result diff(List<String> from, List<String> to, int costLimit) {
+        Map<String, Integer> ids = new HashMap<>();
+        LineDiff diff = new LineDiff(intern(from, ids), intern(to, ids), costLimit);
+        diff.compare(0, from.size(), 0, to.size());
+        return new Result(diff.deleted, diff.inserted);
+    }
+
+    private static int[] intern(List<String> lines, Map<String, Integer> ids) {
+        int[] interned = new int[lines.size()];
+        for (int i = 0; i < interned.length; i++) {
+            interned[i] = ids.computeIfAbsent(lines.get(i), line -> ids.size());
+        }
+        return interned;
+    }
+
+    private void compare(int fromStart, int fromEnd, int toStart, int toEnd) {
+        while (fromStart < fromEnd && toStart < toEnd && from[fromStart] == to[toStart]) {
+            fromStart++;
+            toStart++;
+        }
+        while (fromEnd > fromStart && toEnd > toStart && from[fromEnd - 1] == to[toEnd - 1]) {
+            fromEnd--;
+            toEnd--;
+        }
+
+        if (fromStart == fromEnd || toStart == toEnd) {
+            markChanged(fromStart, fromEnd, toStart, toEnd);
+            return;
+        }
+        long split = split(fromStart, fromEnd, toStart, toEnd);
+        int x = (int) (split >>> 32);
+        int y = (int) split;
+        if ((x == fromStart && y == toStart) || (x == fromEnd && y == toEnd)) {
+            markChanged(fromStart, fromEnd, toStart, toEnd);
+            return;
+        }
+        compare(fromStart, x, toStart, y);
+        compare(x, fromEnd, y, toEnd);
+    }
+
+    private void markChanged(int fromStart, int fromEnd, int toStart, int toEnd) {
+        for (int i = fromStart; i < fromEnd; i++) {
+            deleted[i] = true;
+        }
+        for (int j = toStart; j < toEnd; j++) {
+            inserted[j] = true;
+        }
+    }
+
+    // Returns the point to split the region at, packed as x << 32 | y. Diagonal k holds the points with x - y = k;
+    // forward[k] is the furthest x the forward search reached on it and backward[k] the smallest x the backward
+    // search reached.
+    private long split(int fromStart, int fromEnd, int toStart, int toEnd) {
+        int minDiagonal = fromStart - toEnd;
+        int maxDiagonal = fromEnd - toStart;
+        int forwardMid = fromStart - toStart;
+        int backwardMid = fromEnd - toEnd;
+        int forwardMin = forwardMid;
+        int forwardMax = forwardMid;
+        int backwardMin = backwardMid;
+        int backwardMax = backwardMid;
+        boolean odd = ((forwardMid - backwardMid) & 1) != 0;
+
+        setForward(forwardMid, fromStart);
+        setBackward(backwardMid, fromEnd);
+
+        for (int cost = 1; ; cost++) {
+            if (forwardMin > minDiagonal) {
+                setForward(--forwardMin - 1, -1);
+            } else {
+                forwardMin++;
+            }
+            if (forwardMax < maxDiagonal) {
+                setForward(++forwardMax + 1, -1);
+            } else {
+                forwardMax--;
+            }
+            for (int k = forwardMax; k >= forwardMin; k -= 2) {
+                int low = forward(k - 1);
+                int high = forward(k + 1);
+                int x = low >= high ? low + 1 : high;
+                int y = x - k;
+                while (x < fromEnd && y < toEnd && from[x] == to[y]) {
+                    x++;
+                    y++;
+                }
+                setForward(k, x);
+                if (odd && backwardMin <= k && k <= backwardMax && backward(k) <= x) {
+                    return pack(x, y);
+                }
+            }
+
+            if (backwardMin > minDiagonal) {
+                setBackward(--backwardMin - 1, Integer.MAX_VALUE);
+            } else {
+                backwardMin++;
+            }
+            if (backwardMax < maxDiagonal) {
+                setBackward(++backwardMax + 1, Integer.MAX_VALUE);
+            } else {
+                backwardMax--;
+            }
+            for (int k = backwardMax; k >= backwardMin; k -= 2) {
+                int low = backward(k - 1);
+                int high = backward(k + 1);
+                int x = low < high ? low : high - 1;
+                int y = x - k;
+                while (x > fromStart && y > toStart && from[x - 1] == to[y - 1]) {
+                    x--;
+                    y--;
+                }
+                setBackward(k, x);
+                if (!odd && forwardMin <= k && k <= forwardMax && x <= forward(k)) {
+                    return pack(x, y);
+                }
+            }
+
+            if (cost >= costLimit) {
+                return furthestPoint(fromStart, fromEnd, toStart, toEnd, forwardMin, forwardMax, backwardMin,
+                        backwardMax);
+            }
+        }
+    }
+
+    private long furthestPoint(int fromStart, int fromEnd, int toStart, int toEnd, int forwardMin, int forwardMax,
+                               int backwardMin, int backwardMax) {
+        int forwardBest = -1;
+        int forwardBestX = fromStart;
+        for (int k = forwardMax; k >= forwardMin; k -= 2) {
+            int x = Math.min(forward(k), fromEnd);
+            int y = x - k;
+            if (y > toEnd) {
+                x = toEnd + k;
+                y = toEnd;
+            }
+            if (x + y > forwardBest) {
+                forwardBest = x + y;
+                forwardBestX = x;
+            }
+        }
+
+        int backwardBest = Integer.MAX_VALUE;
+        int backwardBestX = fromEnd;
+        for (int k = backwardMax; k >= backwardMin; k -= 2) {
+            int x = Math.max(fromStart, backward(k));
+            int y = x - k;
+            if (y < toStart) {
+                x = toStart + k;
+                y = toStart;
+            }
+            if (x + y < backwardBest) {
+                backwardBest = x + y;
+                backwardBestX = x;
+            }
+        }
+
+        if ((fromEnd + toEnd) - backwardBest < forwardBest - (fromStart + toStart)) {
+            return pack(forwardBestX, forwardBest - forwardBestX);
+        }
+        return pack(backwardBestX, backwardBest - backwardBestX);
+    }
+
+    private int forward(int diagonal) {
+        return forward[diagonal + diagonalOffset];
+    }
+
+    private void setForward(int diagonal, int x) {
+        forward[diagonal + diagonalOffset] = x;
+    }
+
+    private int backward(int diagonal) {
+        return backward[diagonal + diagonalOffset];
+    }
+
+    private void setBackward(int diagonal, int x) {
+        backward[diagonal + diagonalOffset] = x;
+    }
+
+    private static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    public record Result(boolean[] deleted, boolean[] inserted) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.devs.api.diff;
+
+import com.devs.api.diff.XmlStructure.Part;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The components of a DEVS model and the connections between them, as declared in its source: component names are
+ * the text of the {@code component} elements, and connections the {@code source} and {@code target} attributes of the
+ * {@code connection} elements. Repeated components or connections are listed once.
+ */
+public record ModelStructure(Set<String> components, Set<Connection> connections) {
+    private static final String COMPONENT = "component";
+
+    /**
+     * Returns the structure of the document, which is empty when the root is not a DEVS model, or null when the
+     * document is not well-formed XML.
+     */
+    public static ModelStructure parse(byte[] content) {
+        Map<Part, String> parts = XmlStructure.parseModel(content);
+        if (parts == null) {
+            return null;
+        }
+
+        Set<String> components = new LinkedHashSet<>();
+        Set<Connection> connections = new LinkedHashSet<>();
+        for (Part part : parts.keySet()) {
+            if (part.target() != null) {
+                String source = part.name().trim();
+                String target = part.target().trim();
+                if (!source.isEmpty() && !target.isEmpty()) {
+                    connections.add(new Connection(source, target));
+                }
+            } else if (COMPONENT.equals(part.kind()) && !part.name().isEmpty()) {
+                components.add(part.name());
+            }
+        }
+        return new ModelStructure(components, connections);
+    }
+
+    public record Connection(String source, String target) {
+    }
+}
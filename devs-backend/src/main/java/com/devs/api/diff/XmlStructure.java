@@ -0,0 +1,207 @@
+package com.devs.api.diff;
+
+import com.devs.api.storage.ContentHash;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The parts of an XML document a reviewer compares. In a DEVS model these are the components, by name, and the
+ * connections, by source and target; in any other document, such as a schema, the children of the root element, by
+ * element name and name attribute. Each part maps to a fingerprint of its subtree, so a part present in two versions
+ * can be told changed or unchanged without keeping the subtree.
+ */
+public final class XmlStructure {
+    private static final String MODEL = "devsModel";
+    private static final String COMPONENT = "component";
+    private static final String CONNECTIONS = "connections";
+    private static final String CONNECTION = "connection";
+
+    private XmlStructure() {
+    }
+
+    /**
+     * Returns the fingerprint of each part keyed by part, or null when the document is not well-formed XML.
+     */
+    public static Map<Part, String> parse(byte[] content) {
+        PartHandler handler = read(content);
+        return handler != null ? handler.parts : null;
+    }
+
+    /**
+     * Like {@link #parse}, but only for a DEVS model: the parts are empty when the root is not a model.
+     */
+    public static Map<Part, String> parseModel(byte[] content) {
+        PartHandler handler = read(content);
+        if (handler == null) {
+            return null;
+        }
+        return handler.devsModel ? handler.parts : Map.of();
+    }
+
+    private static PartHandler read(byte[] content) {
+        try {
+            XMLReader reader = newReader();
+            PartHandler handler = new PartHandler();
+            reader.setContentHandler(handler);
+            reader.setErrorHandler(handler);
+            reader.parse(new InputSource(new ByteArrayInputStream(content)));
+            return handler;
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A namespace-aware reader that refuses document type declarations, so untrusted documents cannot pull in
+     * external entities.
+     */
+    private static XMLReader newReader() throws ParserConfigurationException, SAXException {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        return factory.newSAXParser().getXMLReader();
+    }
+
+    /**
+     * A part of the document. A DEVS connection is named by its source, with its target alongside; other parts have
+     * no target. Parts repeated with the same name are told apart by occurrence, counted from 1 in document order.
+     */
+    public record Part(String kind, String name, String target, int occurrence) {
+
+        /**
+         * The name shown to a reviewer, which is unique within the document.
+         */
+        public String label() {
+            String label = target != null ? name + " -> " + target : name;
+            return occurrence > 1 ? label + " #" + occurrence : label;
+        }
+    }
+
+    private static final class PartHandler extends DefaultHandler {
+        private final Map<Part, String> parts = new LinkedHashMap<>();
+        private final Map<Part, Integer> occurrences = new HashMap<>();
+        private final StringBuilder fingerprint = new StringBuilder();
+        private final StringBuilder text = new StringBuilder();
+        private final StringBuilder partText = new StringBuilder();
+
+        private int depth;
+        private boolean devsModel;
+        private boolean inConnections;
+        private int partDepth;
+        private String partKind;
+        private String partName;
+        private String partTarget;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            depth++;
+            if (depth == 1) {
+                devsModel = MODEL.equals(localName);
+                return;
+            }
+
+            if (partKind == null) {
+                if (devsModel && depth == 2 && CONNECTIONS.equals(localName)) {
+                    inConnections = true;
+                    return;
+                }
+                if (depth == 2 || (inConnections && depth == 3)) {
+                    startPart(localName, attributes);
+                }
+            }
+            if (partKind != null) {
+                flushText();
+                fingerprint.append('<').append(uri).append('|').append(localName);
+                // Attribute order carries no meaning, so it must not change the fingerprint.
+                Map<String, String> sorted = new TreeMap<>();
+                for (int i = 0; i < attributes.getLength(); i++) {
+                    sorted.put(attributes.getURI(i) + "|" + attributes.getLocalName(i), attributes.getValue(i));
+                }
+                sorted.forEach((name, value) -> fingerprint.append(' ').append(name).append('=').append(value));
+                fingerprint.append('>');
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (partKind != null) {
+                text.append(ch, start, length);
+                partText.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if (partKind != null) {
+                if (devsModel && COMPONENT.equals(partKind) && depth == partDepth) {
+                    partName = partText.toString().trim();
+                }
+                flushText();
+                fingerprint.append("</").append(localName).append('>');
+                if (depth == partDepth) {
+                    endPart();
+                }
+            } else if (inConnections && depth == 2) {
+                inConnections = false;
+            }
+            depth--;
+        }
+
+        private void startPart(String localName, Attributes attributes) {
+            partDepth = depth;
+            partKind = localName;
+            if (devsModel && CONNECTION.equals(localName)) {
+                partName = valueOrEmpty(attributes.getValue("", "source"));
+                partTarget = valueOrEmpty(attributes.getValue("", "target"));
+            } else if (attributes.getValue("", "name") != null) {
+                partName = attributes.getValue("", "name");
+            } else if (attributes.getValue("", "id") != null) {
+                partName = attributes.getValue("", "id");
+            } else {
+                partName = "";
+            }
+            fingerprint.setLength(0);
+            text.setLength(0);
+            partText.setLength(0);
+        }
+
+        private void endPart() {
+            Part part = new Part(partKind, partName, partTarget, 1);
+            int occurrence = occurrences.merge(part, 1, Integer::sum);
+            if (occurrence > 1) {
+                part = new Part(partKind, partName, partTarget, occurrence);
+            }
+            parts.put(part, ContentHash.sha256Hex(fingerprint.toString().getBytes(StandardCharsets.UTF_8)));
+            partKind = null;
+            partName = null;
+            partTarget = null;
+        }
+
+        private static String valueOrEmpty(String value) {
+            return value != null ? value : "";
+        }
+
+        private void flushText() {
+            String trimmed = text.toString().trim();
+            if (!trimmed.isEmpty()) {
+                fingerprint.append(trimmed);
+            }
+            text.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.devs.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportEntryDTO {
+    private String fileName;
+    private String status;
+    private Long modelId;
+    private String errorMessage;
+}
@@ -0,0 +1,21 @@
+package com.devs.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportReportDTO {
+    private int total;
+    private int imported;
+    private int failed;
+    private long elapsedMillis;
+    private List<BulkImportEntryDTO> entries = new ArrayList<>();
+}
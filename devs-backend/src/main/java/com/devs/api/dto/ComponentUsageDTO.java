@@ -0,0 +1,15 @@
+package com.devs.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComponentUsageDTO {
+    private String component;
+    private long modelCount;
+}
@@ -0,0 +1,20 @@
+package com.devs.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiffHunkDTO {
+    private int fromLine;
+    private int fromCount;
+    private int toLine;
+    private int toCount;
+    private List<String> lines;
+}
@@ -2,6 +2,7 @@ package com.devs.api.dto;
 
 import com.devs.api.entity.History;
 import com.devs.api.entity.SchemaHistory;
+import com.devs.api.repository.projection.HistoryEntry;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -36,4 +37,18 @@ public class HistoryDTO {
 
         return historyDTO;
     }
+
+    public static HistoryDTO convertToHistoryDTO(HistoryEntry entry) {
+        HistoryDTO historyDTO = new HistoryDTO();
+        historyDTO.setCreateDate(entry.getCreateDate());
+        historyDTO.setId(entry.getId());
+        historyDTO.setUpdateDate(entry.getUpdateDate());
+        historyDTO.setVersion(entry.getVersion());
+
+        UserDTO userDTO = new UserDTO();
+        userDTO.setUsername(entry.getUsername());
+        historyDTO.setUser(userDTO);
+
+        return historyDTO;
+    }
 }
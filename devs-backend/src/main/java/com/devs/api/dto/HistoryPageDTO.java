@@ -0,0 +1,21 @@
+package com.devs.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One page of a file's history, newest version first. {@code nextBefore} is the version to pass as {@code before}
+ * for the next page, or null on the last page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryPageDTO {
+    private List<HistoryDTO> items;
+    private Integer nextBefore;
+}
@@ -0,0 +1,22 @@
+package com.devs.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelConformanceDTO {
+    private Long modelId;
+    private Long schemaId;
+    private Integer schemaVersion;
+    private Integer modelVersion;
+    private boolean valid;
+    private String errorMessage;
+    private Date checkDate;
+}
@@ -0,0 +1,21 @@
+package com.devs.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One page of the models connecting two components, newest first. {@code nextBefore} is the model id to pass as
+ * {@code before} for the next page, or null on the last page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelCouplingPageDTO {
+    private List<ModelDTO> items;
+    private Long nextBefore;
+}
@@ -1,6 +1,5 @@
 package com.devs.api.dto;
 
-import com.devs.api.entity.ModelHistory;
 import com.devs.api.entity.Tag;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -20,11 +19,11 @@ public class ModelDTO {
     private byte[] sourceFile;
     private List<Tag> tags;
     private Integer version;
+    private Long lockVersion;
     private Date createDate;
     private Date deleteDate;
     private Date updateDate;
     private Boolean favorite;
-    private List<HistoryDTO> history;
     private String description;
     private Integer based;
     private String username;
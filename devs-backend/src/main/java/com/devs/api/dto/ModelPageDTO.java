@@ -0,0 +1,21 @@
+package com.devs.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One page of a model listing. {@code nextCursor} is the token to pass as {@code cursor} for the next page, or null
+ * on the last page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelPageDTO {
+    private List<ModelDTO> items;
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.devs.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One page of search results, most relevant first. {@code nextOffset} is the offset to pass for the next page, or
+ * null on the last page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelSearchPageDTO {
+    private List<ModelDTO> items;
+    private Integer nextOffset;
+}
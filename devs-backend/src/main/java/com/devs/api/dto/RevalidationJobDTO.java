@@ -0,0 +1,25 @@
+package com.devs.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevalidationJobDTO {
+    private String id;
+    private Long schemaId;
+    private Integer schemaVersion;
+    private String status;
+    private long total;
+    private long processed;
+    private long valid;
+    private long invalid;
+    private Date startDate;
+    private Date endDate;
+}
@@ -6,7 +6,6 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.util.Date;
-import java.util.List;
 
 @Getter
 @Setter
@@ -20,8 +19,8 @@ public class SchemaDTO {
     private Date deleteDate;
     private Date updateDate;
     private String description;
-    private List<HistoryDTO> history;
     private Integer based;
     private Integer version;
+    private Long lockVersion;
     private String username;
 }
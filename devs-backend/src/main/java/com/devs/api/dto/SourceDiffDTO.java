@@ -0,0 +1,22 @@
+package com.devs.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SourceDiffDTO {
+    private Integer fromVersion;
+    private Integer toVersion;
+    private boolean structureCompared;
+    private List<StructuralChangeDTO> structuralChanges;
+    private int linesAdded;
+    private int linesRemoved;
+    private List<DiffHunkDTO> hunks;
+}
@@ -0,0 +1,25 @@
+package com.devs.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of the models matching a tag filter, newest first. {@code total} counts every matching model and
+ * {@code facets} maps each tag to the number of matching models that carry it. {@code nextBefore} is the model id to
+ * pass as {@code before} for the next page, or null on the last page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagFilterPageDTO {
+    private List<ModelDTO> items;
+    private Long nextBefore;
+    private int total;
+    private Map<String, Integer> facets;
+}
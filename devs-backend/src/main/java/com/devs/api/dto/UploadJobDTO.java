@@ -0,0 +1,22 @@
+package com.devs.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadJobDTO {
+    private String id;
+    private String status;
+    private String fileName;
+    private Long modelId;
+    private String errorMessage;
+    private Date createDate;
+    private Date endDate;
+}
@@ -1,31 +1,48 @@
 package com.devs.api.entity;
 
+import com.devs.api.storage.ContentHash;
+import com.devs.api.storage.SourceFileListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.Type;
 
 import javax.persistence.*;
 import java.util.Date;
+import java.util.function.Function;
 
 @MappedSuperclass
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public abstract class History {
+@EntityListeners(SourceFileListener.class)
+public abstract class History implements StoredSource {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
     private Long id;
 
-    @Lob
-    @Type(type = "org.hibernate.type.BinaryType")
-    @Column(name = "sourceFile")
+    @Column(name = "contentHash", length = 64)
+    @Setter(AccessLevel.NONE)
+    private String contentHash;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
     private byte[] sourceFile;
 
+    @Transient
+    @JsonIgnore
+    private String storedContentHash;
+
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Function<String, byte[]> sourceLoader;
+
     @Column(name = "version", length = 255)
     private Integer version;
 
@@ -38,4 +55,22 @@ public abstract class History {
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
-}
\ No newline at end of file
+
+    public void setSourceFile(byte[] sourceFile) {
+        this.sourceFile = sourceFile;
+        this.contentHash = sourceFile != null ? ContentHash.sha256Hex(sourceFile) : null;
+    }
+
+    @Override
+    public byte[] getSourceFile() {
+        if (sourceFile == null && contentHash != null && sourceLoader != null) {
+            sourceFile = sourceLoader.apply(contentHash);
+        }
+        return sourceFile;
+    }
+
+    @Override
+    public void loadSourceFileWith(Function<String, byte[]> sourceLoader) {
+        this.sourceLoader = sourceLoader;
+    }
+}
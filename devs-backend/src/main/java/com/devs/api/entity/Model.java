@@ -15,11 +15,20 @@ import java.util.List;
 
 @Entity
 @Table(name = "models")
+@NamedEntityGraph(name = Model.SUMMARY_GRAPH, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("tags")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Model extends VersionableFile {
+    /**
+     * What a model listing reads besides the model itself: the owner's username and the tags.
+     */
+    public static final String SUMMARY_GRAPH = "Model.summary";
+
     @Column(name = "favorite")
     private Boolean favorite;
 
@@ -8,6 +8,8 @@ import lombok.Setter;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import java.util.ArrayList;
@@ -15,11 +17,13 @@ import java.util.List;
 
 @Entity
 @Table(name = "schemas")
+@NamedEntityGraph(name = Schema.SUMMARY_GRAPH, attributeNodes = @NamedAttributeNode("user"))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Schema extends VersionableFile {
+    public static final String SUMMARY_GRAPH = "Schema.summary";
 
     @OneToMany(mappedBy = "schema", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
@@ -0,0 +1,25 @@
+package com.devs.api.entity;
+
+import java.util.function.Function;
+
+/**
+ * A row whose source file is kept in the blobs table and referenced by its content hash.
+ */
+public interface StoredSource {
+    String getContentHash();
+
+    byte[] getSourceFile();
+
+    /**
+     * Sets how the source file is read from the blob store. It is read on the first call to {@link #getSourceFile()},
+     * so rows that are only listed never touch their blob.
+     */
+    void loadSourceFileWith(Function<String, byte[]> sourceLoader);
+
+    /**
+     * The hash the stored row currently references, as of the last load or write.
+     */
+    String getStoredContentHash();
+
+    void setStoredContentHash(String storedContentHash);
+}
@@ -0,0 +1,151 @@
+package com.devs.api.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Content-addressed storage of source files. A blob holds either the full content or a delta against the blob named
+ * by delta_base_hash, encoded by {@link com.devs.api.storage.PayloadCodec}; depth is the number of deltas applied to
+ * rebuild it and size the length of the rebuilt content. The payload is in the payload column, or with the configured
+ * {@link com.devs.api.storage.BlobStore} when that column is null. ref_count counts the rows pointing at a blob plus
+ * the blobs using it as a delta base.
+ */
+@Repository
+public class BlobRepository {
+    private static final String RETAIN = "UPDATE blobs SET ref_count = ref_count + 1 WHERE hash = ?";
+
+    private static final String RELEASE = "UPDATE blobs SET ref_count = ref_count - 1 WHERE hash = ? AND ref_count > 0";
+
+    // Rows another transaction holds are skipped rather than waited for; a blob that transaction still references has
+    // its count raised by then, and one it releases is collected on a later pass.
+    private static final String DELETE_UNREFERENCED =
+            "DELETE FROM blobs WHERE hash IN (SELECT hash FROM blobs WHERE ref_count = 0 LIMIT ? " +
+                    "FOR UPDATE SKIP LOCKED) RETURNING hash, delta_base_hash, payload IS NOT NULL AS inline";
+
+    private static final String INSERT =
+            "INSERT INTO blobs (hash, payload, depth, size, ref_count, create_date) VALUES (?, ?, 0, ?, 1, now()) " +
+                    "ON CONFLICT (hash) DO NOTHING";
+
+    private static final String FIND =
+            "SELECT hash, payload, delta_base_hash, depth FROM blobs WHERE hash = ?";
+
+    private static final String FIND_SIZE = "SELECT size FROM blobs WHERE hash = ?";
+
+    private static final String FIND_CHAIN =
+            "WITH RECURSIVE chain AS (" +
+                    "SELECT hash, payload, delta_base_hash, depth, 0 AS step FROM blobs WHERE hash = ? " +
+                    "UNION ALL " +
+                    "SELECT b.hash, b.payload, b.delta_base_hash, b.depth, c.step + 1 FROM blobs b " +
+                    "JOIN chain c ON b.hash = c.delta_base_hash) " +
+                    "SELECT hash, payload, delta_base_hash, depth FROM chain ORDER BY step";
+
+    private static final String DEPENDENTS =
+            "WITH RECURSIVE dependents AS (" +
+                    "SELECT hash, depth FROM blobs WHERE delta_base_hash = ? " +
+                    "UNION ALL " +
+                    "SELECT b.hash, b.depth FROM blobs b JOIN dependents d ON b.delta_base_hash = d.hash) ";
+
+    private static final String MAX_DEPENDENT_DEPTH = DEPENDENTS + "SELECT coalesce(max(depth), 0) FROM dependents";
+
+    private static final String DEEPEN_DEPENDENTS =
+            DEPENDENTS + "UPDATE blobs SET depth = blobs.depth + 1 FROM dependents WHERE blobs.hash = dependents.hash";
+
+    private static final String REBASE =
+            "UPDATE blobs SET payload = ?, delta_base_hash = ?, depth = 1 " +
+                    "WHERE hash = ? AND delta_base_hash IS NULL";
+
+    private static final RowMapper<StoredBlob> STORED_BLOB_MAPPER = (rs, rowNum) -> new StoredBlob(
+            rs.getString("hash"),
+            rs.getBytes("payload"),
+            rs.getString("delta_base_hash"),
+            rs.getInt("depth"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BlobRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds a reference to an existing blob, returning false when no blob has that hash.
+     */
+    public boolean retain(String hash) {
+        return jdbcTemplate.update(RETAIN, hash) == 1;
+    }
+
+    public void release(String hash) {
+        jdbcTemplate.update(RELEASE, hash);
+    }
+
+    /**
+     * Releases one reference per entry. The hashes are sorted first so that concurrent callers lock blobs in the same
+     * order.
+     */
+    public void releaseAll(List<String> hashes) {
+        List<String> sorted = hashes.stream().sorted().toList();
+        jdbcTemplate.batchUpdate(RELEASE, sorted, sorted.size(), (ps, hash) -> ps.setString(1, hash));
+    }
+
+    /**
+     * Deletes up to {@code limit} blobs that nothing references.
+     */
+    public List<DeletedBlob> deleteUnreferenced(int limit) {
+        return jdbcTemplate.query(DELETE_UNREFERENCED, (rs, rowNum) -> new DeletedBlob(
+                rs.getString("hash"),
+                rs.getString("delta_base_hash"),
+                rs.getBoolean("inline")), limit);
+    }
+
+    /**
+     * Adds a full blob with one reference, returning false when a blob with that hash already exists. The payload is
+     * null when it is kept outside the database.
+     */
+    public boolean insert(String hash, long size, byte[] payload) {
+        return jdbcTemplate.update(INSERT, hash, payload, size) == 1;
+    }
+
+    public Optional<StoredBlob> find(String hash) {
+        return jdbcTemplate.query(FIND, STORED_BLOB_MAPPER, hash).stream().findFirst();
+    }
+
+    public Optional<Long> findSize(String hash) {
+        return jdbcTemplate.queryForList(FIND_SIZE, Long.class, hash).stream().findFirst();
+    }
+
+    /**
+     * Returns the blob followed by each delta base down to the full snapshot it is rebuilt from.
+     */
+    public List<StoredBlob> findChain(String hash) {
+        return jdbcTemplate.query(FIND_CHAIN, STORED_BLOB_MAPPER, hash);
+    }
+
+    public int findMaxDependentDepth(String hash) {
+        Integer depth = jdbcTemplate.queryForObject(MAX_DEPENDENT_DEPTH, Integer.class, hash);
+        return depth != null ? depth : 0;
+    }
+
+    /**
+     * Turns a full blob into a delta against {@code baseHash}, one level deeper for it and everything built on it,
+     * and replaces its payload with the delta, or clears it when the delta is kept outside the database. Returns
+     * false when the blob is no longer a full snapshot.
+     */
+    public boolean rebase(String hash, String baseHash, byte[] payload) {
+        if (jdbcTemplate.update(REBASE, payload, baseHash, hash) != 1) {
+            return false;
+        }
+        jdbcTemplate.update(DEEPEN_DEPENDENTS, hash);
+        retain(baseHash);
+        return true;
+    }
+
+    // payload is null when it is kept outside the database.
+    public record StoredBlob(String hash, byte[] payload, String deltaBaseHash, int depth) {
+    }
+
+    public record DeletedBlob(String hash, String deltaBaseHash, boolean inline) {
+    }
+}
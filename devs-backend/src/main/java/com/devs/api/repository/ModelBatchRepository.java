@@ -0,0 +1,93 @@
+package com.devs.api.repository;
+
+import com.devs.api.entity.Model;
+import com.devs.api.entity.Tag;
+import com.devs.api.service.BlobService;
+import com.devs.api.service.ModelSearchService;
+import com.devs.api.service.ModelStructureService;
+import com.devs.api.service.TagIndexService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts models with plain JDBC batches. The identity column keeps Hibernate from batching inserts, so ids are
+ * reserved from the column's sequence in a single round trip and written explicitly. Entity listeners do not run for
+ * these inserts, so the blob store and the search, structure and tag indexes are updated here.
+ */
+@Repository
+public class ModelBatchRepository {
+    private static final String RESERVE_IDS =
+            "SELECT nextval(pg_get_serial_sequence('models', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_MODEL =
+            "INSERT INTO models (id, name, content_hash, version, create_date, description, user_id, favorite) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_MODEL_TAG = "INSERT INTO model_tags (model_id, tag_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobService blobService;
+    private final ModelSearchService modelSearchService;
+    private final ModelStructureService modelStructureService;
+    private final TagIndexService tagIndexService;
+
+    public ModelBatchRepository(JdbcTemplate jdbcTemplate, BlobService blobService,
+                                ModelSearchService modelSearchService, ModelStructureService modelStructureService,
+                                TagIndexService tagIndexService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobService = blobService;
+        this.modelSearchService = modelSearchService;
+        this.modelStructureService = modelStructureService;
+        this.tagIndexService = tagIndexService;
+    }
+
+    @Transactional
+    public void insertAll(List<Model> models) {
+        if (models.isEmpty()) {
+            return;
+        }
+
+        for (Model model : models) {
+            blobService.store(model.getContentHash(), model.getSourceFile(), null);
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(RESERVE_IDS, Long.class, models.size());
+        for (int i = 0; i < models.size(); i++) {
+            models.get(i).setId(ids.get(i));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_MODEL, models, models.size(), (ps, model) -> {
+            ps.setLong(1, model.getId());
+            ps.setString(2, model.getName());
+            ps.setString(3, model.getContentHash());
+            ps.setInt(4, model.getVersion());
+            ps.setTimestamp(5, new Timestamp(model.getCreateDate().getTime()));
+            ps.setString(6, model.getDescription());
+            ps.setLong(7, model.getUser().getId());
+            ps.setNull(8, Types.BOOLEAN);
+        });
+
+        List<Long[]> modelTags = new ArrayList<>();
+        for (Model model : models) {
+            for (Tag tag : model.getTags()) {
+                modelTags.add(new Long[]{model.getId(), tag.getId()});
+            }
+        }
+        if (!modelTags.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MODEL_TAG, modelTags, modelTags.size(), (ps, modelTag) -> {
+                ps.setLong(1, modelTag[0]);
+                ps.setLong(2, modelTag[1]);
+            });
+        }
+
+        modelSearchService.indexAll(models);
+        modelStructureService.indexAll(models);
+        models.forEach(tagIndexService::modelChanged);
+    }
+}
@@ -0,0 +1,57 @@
+package com.devs.api.repository;
+
+import com.devs.api.dto.ModelConformanceDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public class ModelConformanceRepository {
+    private static final String UPSERT =
+            "INSERT INTO model_conformance " +
+                    "(model_id, schema_id, schema_version, model_version, valid, error_message, check_date) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (model_id, schema_id) DO UPDATE SET schema_version = EXCLUDED.schema_version, " +
+                    "model_version = EXCLUDED.model_version, valid = EXCLUDED.valid, " +
+                    "error_message = EXCLUDED.error_message, check_date = EXCLUDED.check_date";
+
+    private static final String FIND_BY_MODEL_ID =
+            "SELECT model_id, schema_id, schema_version, model_version, valid, error_message, check_date " +
+                    "FROM model_conformance WHERE model_id = ? ORDER BY schema_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ModelConformanceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public void saveAll(List<ModelConformanceDTO> conformances) {
+        if (conformances.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT, conformances, conformances.size(), (ps, conformance) -> {
+            ps.setLong(1, conformance.getModelId());
+            ps.setLong(2, conformance.getSchemaId());
+            ps.setInt(3, conformance.getSchemaVersion());
+            ps.setObject(4, conformance.getModelVersion());
+            ps.setBoolean(5, conformance.isValid());
+            ps.setString(6, conformance.getErrorMessage());
+            ps.setTimestamp(7, new Timestamp(conformance.getCheckDate().getTime()));
+        });
+    }
+
+    public List<ModelConformanceDTO> findByModelId(Long modelId) {
+        return jdbcTemplate.query(FIND_BY_MODEL_ID, (rs, rowNum) -> new ModelConformanceDTO(
+                rs.getLong("model_id"),
+                rs.getLong("schema_id"),
+                rs.getInt("schema_version"),
+                (Integer) rs.getObject("model_version"),
+                rs.getBoolean("valid"),
+                rs.getString("error_message"),
+                rs.getTimestamp("check_date")), modelId);
+    }
+}
@@ -0,0 +1,52 @@
+package com.devs.api.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position in a model listing: the sort key and id of the last model returned. Clients get it as an opaque token and
+ * pass it back for the next page; the token also records the order it was issued for, so it cannot be replayed against
+ * a different one. The key is null when the last model has no name.
+ */
+public record ModelCursor(ModelSort sort, boolean descending, Object key, Long id) {
+
+    public String encode() {
+        String token = sort + ":" + (descending ? "desc" : "asc") + ":" + id;
+        // A null key leaves the value out, which keeps it apart from an empty name.
+        if (key != null) {
+            // Timestamps keep their nanoseconds, so a key read from the database compares equal to itself.
+            token += ":" + (key instanceof Date date ? instant(date).toString() : key.toString());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a token issued by {@link #encode()}, throwing {@link IllegalArgumentException} when it is malformed.
+     */
+    public static ModelCursor decode(String token) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", 4);
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            ModelSort sort = ModelSort.valueOf(parts[0]);
+            Object key;
+            if (parts.length == 3) {
+                key = null;
+            } else {
+                key = sort == ModelSort.NAME ? parts[3] : Timestamp.from(Instant.parse(parts[3]));
+            }
+            return new ModelCursor(sort, "desc".equals(parts[1]), key, Long.valueOf(parts[2]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    private static Instant instant(Date date) {
+        return date instanceof Timestamp timestamp ? timestamp.toInstant() : date.toInstant();
+    }
+}
@@ -0,0 +1,10 @@
+package com.devs.api.repository;
+
+import java.util.List;
+
+/**
+ * Which of a user's models a listing returns. Null or empty fields do not filter; {@code tags} matches models with
+ * any of the tags, and {@code search} is matched against the name and description, ignoring case.
+ */
+public record ModelFilter(Long userId, boolean deleted, Boolean favorite, List<String> tags, String search) {
+}
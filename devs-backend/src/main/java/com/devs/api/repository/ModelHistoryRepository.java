@@ -1,7 +1,11 @@
 package com.devs.api.repository;
 
 import com.devs.api.entity.ModelHistory;
+import com.devs.api.repository.projection.HistoryEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +16,11 @@ public interface ModelHistoryRepository extends JpaRepository<ModelHistory, Long
     List<ModelHistory> findByModelId(Long modelId);
 
     Optional<ModelHistory> findByModelIdAndVersion(Long modelId, Integer version);
+
+    @Query("select h.id as id, h.version as version, h.createDate as createDate, h.updateDate as updateDate, " +
+            "u.username as username from ModelHistory h left join h.user u " +
+            "where h.model.id = :modelId and h.version < :beforeVersion order by h.version desc")
+    List<HistoryEntry> findEntriesBefore(@Param("modelId") Long modelId,
+                                         @Param("beforeVersion") Integer beforeVersion,
+                                         Pageable pageable);
 }
\ No newline at end of file
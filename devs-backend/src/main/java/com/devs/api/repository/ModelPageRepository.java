@@ -0,0 +1,140 @@
+package com.devs.api.repository;
+
+import com.devs.api.entity.Model;
+import com.devs.api.entity.Tag;
+import com.devs.api.repository.Pages.Slice;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lists a user's models a page at a time. Pages are keyed by the sort key and id of the last row returned rather than
+ * by offset, so every page is an index range scan from where the previous one stopped and rows inserted or deleted in
+ * between do not shift the pages that follow. A page takes two queries whatever its size: one for the ids in order,
+ * and one loading those models with their owner and tags.
+ */
+@Repository
+public class ModelPageRepository {
+    private final EntityManager entityManager;
+    private final ModelRepository modelRepository;
+
+    public ModelPageRepository(EntityManager entityManager, ModelRepository modelRepository) {
+        this.entityManager = entityManager;
+        this.modelRepository = modelRepository;
+    }
+
+    /**
+     * Returns up to {@code limit} models matching the filter that come after {@code after} in the given order, or the
+     * first ones when {@code after} is null. {@code next} is set when more models follow.
+     */
+    public ModelPage findPage(ModelFilter filter, ModelSort sort, boolean descending, ModelCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Model> model = query.from(Model.class);
+        Expression<Comparable<Object>> key = sortKey(cb, model, sort);
+
+        List<Predicate> predicates = filterPredicates(cb, query, model, filter);
+        if (after != null) {
+            predicates.add(keysetPredicate(cb, model, key, sort == ModelSort.NAME, descending, after));
+        }
+
+        query.multiselect(model.get("id"), key)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(descending ? cb.desc(key) : cb.asc(key),
+                        descending ? cb.desc(model.get("id")) : cb.asc(model.get("id")));
+
+        Slice<Tuple> rows = Pages.slice(
+                entityManager.createQuery(query).setMaxResults(Pages.fetchLimit(limit)).getResultList(), limit);
+        List<Long> ids = rows.items().stream().map(row -> row.get(0, Long.class)).toList();
+        Tuple last = rows.last();
+        ModelCursor next = null;
+        if (last != null) {
+            next = new ModelCursor(sort, descending, last.get(1), last.get(0, Long.class));
+        }
+        return new ModelPage(modelRepository.findSummariesInOrder(ids), next);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Expression<Comparable<Object>> sortKey(CriteriaBuilder cb, Root<Model> model, ModelSort sort) {
+        // These expressions match the listing indexes of live and trashed models, which is what lets the keyset seek
+        // use them.
+        Expression<?> key = switch (sort) {
+            case UPDATED -> cb.coalesce(model.get("updateDate"), model.get("createDate"));
+            case CREATED -> model.get("createDate");
+            case NAME -> cb.lower(model.get("name"));
+        };
+        return (Expression<Comparable<Object>>) key;
+    }
+
+    private static List<Predicate> filterPredicates(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Model> model,
+                                                    ModelFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(model.get("user").get("id"), filter.userId()));
+        predicates.add(filter.deleted() ? cb.isNotNull(model.get("deleteDate")) : cb.isNull(model.get("deleteDate")));
+
+        if (filter.favorite() != null) {
+            predicates.add(filter.favorite()
+                    ? cb.isTrue(model.get("favorite"))
+                    : cb.or(cb.isNull(model.get("favorite")), cb.isFalse(model.get("favorite"))));
+        }
+
+        if (filter.tags() != null && !filter.tags().isEmpty()) {
+            // A subquery rather than a join, so a model carrying several of the tags is still listed once.
+            Subquery<Long> tagged = query.subquery(Long.class);
+            Root<Model> taggedModel = tagged.from(Model.class);
+            Join<Model, Tag> tag = taggedModel.join("tags");
+            tagged.select(taggedModel.get("id")).where(tag.get("name").in(filter.tags()));
+            predicates.add(model.get("id").in(tagged));
+        }
+
+        if (filter.search() != null && !filter.search().isBlank()) {
+            String pattern = "%" + escapeLike(filter.search().trim().toLowerCase(Locale.ROOT)) + "%";
+            predicates.add(cb.or(
+                    cb.like(cb.lower(model.get("name")), pattern, '\\'),
+                    cb.like(cb.lower(model.get("description")), pattern, '\\')));
+        }
+        return predicates;
+    }
+
+    /**
+     * Rows after the cursor in the given order. The redundant bound on the key alone gives the planner a range to
+     * seek to in the index; the disjunction on its own would not. PostgreSQL sorts nulls above every value, so when the
+     * key can be null, null keys come after all others in ascending order and before them in descending order.
+     */
+    private static Predicate keysetPredicate(CriteriaBuilder cb, Root<Model> model, Expression<Comparable<Object>> key,
+                                             boolean nullable, boolean descending, ModelCursor after) {
+        Expression<Long> id = model.get("id");
+        Predicate sameKeyAfter = descending ? cb.lessThan(id, after.id()) : cb.greaterThan(id, after.id());
+        if (after.key() == null) {
+            Predicate nullKeyAfter = cb.and(cb.isNull(key), sameKeyAfter);
+            return descending ? cb.or(nullKeyAfter, cb.isNotNull(key)) : nullKeyAfter;
+        }
+
+        @SuppressWarnings("unchecked")
+        Comparable<Object> value = (Comparable<Object>) after.key();
+        if (descending) {
+            return cb.and(cb.lessThanOrEqualTo(key, value), cb.or(cb.lessThan(key, value), sameKeyAfter));
+        }
+        Predicate keyAfter = cb.and(cb.greaterThanOrEqualTo(key, value),
+                cb.or(cb.greaterThan(key, value), sameKeyAfter));
+        return nullable ? cb.or(keyAfter, cb.isNull(key)) : keyAfter;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    public record ModelPage(List<Model> models, ModelCursor next) {
+    }
+}
@@ -1,14 +1,54 @@
 package com.devs.api.repository;
 
 import com.devs.api.entity.Model;
+import com.devs.api.repository.projection.ModelSource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
 public interface ModelRepository extends JpaRepository<Model, Long> {
     List<Model> findByUserId(Long userId);
-}
 
+    // Fetching the tags joins one row per tag, so these queries need distinct to return each model once.
+    @EntityGraph(Model.SUMMARY_GRAPH)
+    @Query("select distinct m from Model m where m.user.id = :userId and m.deleteDate is null")
+    List<Model> findByUserIdAndDeleteDateIsNull(@Param("userId") Long userId);
+
+    @EntityGraph(Model.SUMMARY_GRAPH)
+    @Query("select distinct m from Model m where m.user.id = :userId and m.deleteDate is not null")
+    List<Model> findByUserIdAndDeleteDateIsNotNull(@Param("userId") Long userId);
+
+    @EntityGraph(Model.SUMMARY_GRAPH)
+    @Query("select distinct m from Model m where m.id in :ids")
+    List<Model> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 
+    /**
+     * Loads the models with the given ids through {@link Model#SUMMARY_GRAPH}, in the order of the ids. A model
+     * deleted since its id was read is left out.
+     */
+    default List<Model> findSummariesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Model> models = findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(Model::getId, Function.identity()));
+        return ids.stream().map(models::get).filter(Objects::nonNull).toList();
+    }
+
+    long countByDeleteDateIsNull();
+
+    @Query("select m.id as id, m.version as version, m.contentHash as contentHash from Model m " +
+            "where m.deleteDate is null and m.id > :afterId order by m.id")
+    List<ModelSource> findSourcesAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
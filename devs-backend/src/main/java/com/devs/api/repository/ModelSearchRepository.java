@@ -0,0 +1,106 @@
+package com.devs.api.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Maintains the full-text index over models, one row per model. A row keeps the terms extracted from the model's
+ * content along with the hash of that content, so a change to the name, description or tags rebuilds the document in
+ * SQL without parsing the content again. The document itself is built by the {@code model_search_document} function.
+ */
+@Repository
+public class ModelSearchRepository {
+    private static final String TAG_NAMES =
+            "(SELECT string_agg(t.name, ' ') FROM model_tags mt JOIN tags t ON t.id = mt.tag_id " +
+                    "WHERE mt.model_id = m.id)";
+
+    private static final String FIND_CONTENT_HASH = "SELECT content_hash FROM model_search WHERE model_id = ?";
+
+    private static final String INDEX =
+            "INSERT INTO model_search (model_id, content_hash, content_terms, document) " +
+                    "SELECT m.id, ?, c.terms, model_search_document(m.name, " + TAG_NAMES + ", m.description, " +
+                    "c.terms) FROM models m, (SELECT CAST(? AS TEXT) AS terms) c WHERE m.id = ? " +
+                    "ON CONFLICT (model_id) DO UPDATE SET content_hash = EXCLUDED.content_hash, " +
+                    "content_terms = EXCLUDED.content_terms, document = EXCLUDED.document";
+
+    private static final String REFRESH =
+            "INSERT INTO model_search (model_id, content_hash, content_terms, document) " +
+                    "SELECT m.id, s.content_hash, s.content_terms, model_search_document(m.name, " + TAG_NAMES +
+                    ", m.description, s.content_terms) FROM models m LEFT JOIN model_search s ON s.model_id = m.id " +
+                    "WHERE %s ON CONFLICT (model_id) DO UPDATE SET document = EXCLUDED.document";
+
+    private static final String FIND_STALE =
+            "SELECT m.id, m.content_hash FROM models m LEFT JOIN model_search s ON s.model_id = m.id " +
+                    "WHERE m.id > ? AND (s.model_id IS NULL OR s.content_hash IS DISTINCT FROM m.content_hash) " +
+                    "ORDER BY m.id LIMIT ?";
+
+    // The GIN index finds the matching documents; only those are ranked.
+    private static final String SEARCH =
+            "SELECT s.model_id FROM websearch_to_tsquery('simple', ?) q, model_search s " +
+                    "JOIN models m ON m.id = s.model_id " +
+                    "WHERE s.document @@ q AND m.user_id = ? AND m.delete_date IS NULL " +
+                    "ORDER BY ts_rank_cd(s.document, q) DESC, s.model_id DESC OFFSET ? LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ModelSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Tells whether the model's row holds the terms of the content with the given hash.
+     */
+    public boolean isContentIndexed(Long modelId, String contentHash) {
+        List<String> hashes = jdbcTemplate.queryForList(FIND_CONTENT_HASH, String.class, modelId);
+        return !hashes.isEmpty() && contentHash != null && Objects.equals(hashes.get(0), contentHash);
+    }
+
+    /**
+     * Indexes the models with the content terms given, replacing whatever their rows held.
+     */
+    public void indexAll(List<IndexedContent> contents) {
+        jdbcTemplate.batchUpdate(INDEX, contents, contents.size(), (ps, content) -> {
+            ps.setString(1, content.contentHash());
+            ps.setString(2, content.terms());
+            ps.setLong(3, content.modelId());
+        });
+    }
+
+    /**
+     * Rebuilds the model's document from its current name, description and tags, keeping the content terms.
+     */
+    public void refresh(Long modelId) {
+        jdbcTemplate.update(REFRESH.formatted("m.id = ?"), modelId);
+    }
+
+    /**
+     * Rebuilds the documents of every model carrying the tag, after the tag was renamed.
+     */
+    public int refreshTagged(Long tagId) {
+        return jdbcTemplate.update(REFRESH.formatted("m.id IN (SELECT model_id FROM model_tags WHERE tag_id = ?)"),
+                tagId);
+    }
+
+    /**
+     * Returns up to {@code limit} models above {@code afterId}, in id order, whose content is not indexed at its
+     * current version.
+     */
+    public List<IndexedContent> findStaleAfter(Long afterId, int limit) {
+        return jdbcTemplate.query(FIND_STALE,
+                (rs, rowNum) -> new IndexedContent(rs.getLong(1), rs.getString(2), null), afterId, limit);
+    }
+
+    /**
+     * Returns the ids of the user's live models matching the query, most relevant first. The query takes the syntax
+     * of web search engines: quoted phrases, {@code or}, and {@code -} to exclude a term.
+     */
+    public List<Long> search(Long userId, String query, int offset, int limit) {
+        return jdbcTemplate.queryForList(SEARCH, Long.class, query, userId, offset, limit);
+    }
+
+    public record IndexedContent(Long modelId, String contentHash, String terms) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.devs.api.repository;
+
+/**
+ * Orders of the model listing. Every order ends with the model id, so rows with equal keys still have a fixed position
+ * to resume from.
+ */
+public enum ModelSort {
+    /** Last update, or creation for models never updated. */
+    UPDATED,
+    CREATED,
+    /** Name, ignoring case. */
+    NAME
+}
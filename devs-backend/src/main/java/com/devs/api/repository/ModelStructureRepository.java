@@ -0,0 +1,115 @@
+package com.devs.api.repository;
+
+import com.devs.api.diff.ModelStructure;
+import com.devs.api.diff.ModelStructure.Connection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps the components and connections of each model's current version in indexed tables, so questions across models
+ * are answered by index lookups instead of parsing every source. A model's rows are tagged with the hash of the content
+ * they were extracted from, and are only replaced when that content changes.
+ */
+@Repository
+public class ModelStructureRepository {
+    private static final String FIND_CONTENT_HASH = "SELECT content_hash FROM model_structures WHERE model_id = ?";
+
+    private static final String DELETE_COMPONENTS = "DELETE FROM model_components WHERE model_id = ?";
+    private static final String DELETE_CONNECTIONS = "DELETE FROM model_connections WHERE model_id = ?";
+    private static final String INSERT_COMPONENT = "INSERT INTO model_components (model_id, name) VALUES (?, ?)";
+    private static final String INSERT_CONNECTION =
+            "INSERT INTO model_connections (model_id, source, target) VALUES (?, ?, ?)";
+    private static final String UPSERT_CONTENT_HASH =
+            "INSERT INTO model_structures (model_id, content_hash) VALUES (?, ?) " +
+                    "ON CONFLICT (model_id) DO UPDATE SET content_hash = EXCLUDED.content_hash";
+
+    private static final String FIND_STALE =
+            "SELECT m.id, m.content_hash FROM models m LEFT JOIN model_structures s ON s.model_id = m.id " +
+                    "WHERE m.id > ? AND m.content_hash IS NOT NULL " +
+                    "AND (s.model_id IS NULL OR s.content_hash <> m.content_hash) ORDER BY m.id LIMIT ?";
+
+    private static final String COUNT_USING_COMPONENT =
+            "SELECT count(*) FROM model_components c JOIN models m ON m.id = c.model_id " +
+                    "WHERE c.name = ? AND m.user_id = ? AND m.delete_date IS NULL";
+
+    private static final String FIND_COUPLING =
+            "SELECT c.model_id FROM model_connections c JOIN models m ON m.id = c.model_id " +
+                    "WHERE c.source = ? AND c.target = ? AND c.model_id < ? " +
+                    "AND m.user_id = ? AND m.delete_date IS NULL ORDER BY c.model_id DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ModelStructureRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isIndexed(Long modelId, String contentHash) {
+        List<String> hashes = jdbcTemplate.queryForList(FIND_CONTENT_HASH, String.class, modelId);
+        return !hashes.isEmpty() && Objects.equals(hashes.get(0), contentHash);
+    }
+
+    /**
+     * Replaces the indexed structure of each model with the one given, extracted from the content with the given hash.
+     * A null structure, for content that is not well-formed, leaves the model with no components or connections.
+     */
+    @Transactional
+    public void replaceAll(List<IndexedStructure> structures) {
+        List<Object[]> modelIds = new ArrayList<>();
+        List<Object[]> components = new ArrayList<>();
+        List<Object[]> connections = new ArrayList<>();
+        List<Object[]> contentHashes = new ArrayList<>();
+        for (IndexedStructure indexed : structures) {
+            Long modelId = indexed.modelId();
+            modelIds.add(new Object[]{modelId});
+            contentHashes.add(new Object[]{modelId, indexed.contentHash()});
+            if (indexed.structure() != null) {
+                for (String component : indexed.structure().components()) {
+                    components.add(new Object[]{modelId, component});
+                }
+                for (Connection connection : indexed.structure().connections()) {
+                    connections.add(new Object[]{modelId, connection.source(), connection.target()});
+                }
+            }
+        }
+
+        // Writing the hashes first locks each model's row, so two transactions indexing the same model take turns.
+        jdbcTemplate.batchUpdate(UPSERT_CONTENT_HASH, contentHashes);
+        jdbcTemplate.batchUpdate(DELETE_COMPONENTS, modelIds);
+        jdbcTemplate.batchUpdate(DELETE_CONNECTIONS, modelIds);
+        jdbcTemplate.batchUpdate(INSERT_COMPONENT, components);
+        jdbcTemplate.batchUpdate(INSERT_CONNECTION, connections);
+    }
+
+    /**
+     * Returns up to {@code limit} models above {@code afterId}, in id order, with the hash of their current content,
+     * whose structure is missing or was extracted from another version.
+     */
+    public List<IndexedStructure> findStaleAfter(Long afterId, int limit) {
+        return jdbcTemplate.query(FIND_STALE,
+                (rs, rowNum) -> new IndexedStructure(rs.getLong(1), rs.getString(2), null), afterId, limit);
+    }
+
+    /**
+     * Counts the user's live models that declare the component.
+     */
+    public long countUsingComponent(Long userId, String component) {
+        Long count = jdbcTemplate.queryForObject(COUNT_USING_COMPONENT, Long.class, component, userId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Returns the ids of up to {@code limit} of the user's live models with a connection from {@code source} to
+     * {@code target}, newest first, starting below {@code beforeId}.
+     */
+    public List<Long> findCoupling(Long userId, String source, String target, Long beforeId, int limit) {
+        return jdbcTemplate.queryForList(FIND_COUPLING, Long.class, source, target, beforeId, userId, limit);
+    }
+
+    public record IndexedStructure(Long modelId, String contentHash, ModelStructure structure) {
+    }
+}
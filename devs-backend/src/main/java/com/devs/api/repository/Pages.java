@@ -0,0 +1,45 @@
+package com.devs.api.repository;
+
+import java.util.List;
+
+/**
+ * Paging without count queries. A page query asks for {@link #fetchLimit} rows, one more than the page holds, and
+ * {@link #slice} drops the extra row: whether it came back is what tells that another page follows.
+ */
+public final class Pages {
+
+    private Pages() {
+    }
+
+    /**
+     * The page size to serve for a requested size: at least one row and at most {@code max}.
+     */
+    public static int clamp(int size, int max) {
+        return Math.max(1, Math.min(size, max));
+    }
+
+    /**
+     * The number of rows to query for a page of {@code pageSize} rows.
+     */
+    public static int fetchLimit(int pageSize) {
+        return pageSize + 1;
+    }
+
+    /**
+     * Cuts rows queried with {@link #fetchLimit} down to the page.
+     */
+    public static <T> Slice<T> slice(List<T> rows, int pageSize) {
+        return new Slice<>(rows.subList(0, Math.min(rows.size(), pageSize)), rows.size() > pageSize);
+    }
+
+    public record Slice<T>(List<T> items, boolean hasMore) {
+
+        /**
+         * The last item of the page when another page follows, from which the next page's cursor is taken; otherwise
+         * null.
+         */
+        public T last() {
+            return hasMore ? items.get(items.size() - 1) : null;
+        }
+    }
+}
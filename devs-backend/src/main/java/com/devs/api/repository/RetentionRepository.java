@@ -0,0 +1,118 @@
+package com.devs.api.repository;
+
+import com.devs.api.service.BlobService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Deletes expired history rows and purges trashed files in bounded batches, each in its own transaction. Rows are
+ * locked with SKIP LOCKED, so a batch never waits on a request that is editing the same file; whatever it skips is
+ * picked up on a later run. The blob references held by deleted rows are released in the same transaction.
+ */
+@Repository
+public class RetentionRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobService blobService;
+
+    public RetentionRepository(JdbcTemplate jdbcTemplate, BlobService blobService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobService = blobService;
+    }
+
+    /**
+     * Returns up to {@code limit} file ids above {@code afterId}, in order, so history can be walked a range of files
+     * at a time.
+     */
+    public List<Long> findFileIdsAfter(VersionedTable table, Long afterId, int limit) {
+        return jdbcTemplate.queryForList(table.findFileIds, Long.class, afterId, limit);
+    }
+
+    /**
+     * Deletes up to {@code limit} history rows of the files with ids in ({@code afterId}, {@code lastId}] that fall
+     * outside the retention policy: a row is kept when it is one of the newest {@code keepLast} versions of its file,
+     * or the newest version of its month and archived after {@code monthlySince}. Returns the number of rows deleted.
+     */
+    @Transactional
+    public int deleteExpiredHistory(VersionedTable table, Long afterId, Long lastId, int keepLast, Date monthlySince,
+                                    int limit) {
+        List<String> hashes = jdbcTemplate.queryForList(table.deleteExpiredHistory, String.class,
+                afterId, lastId, keepLast, new Timestamp(monthlySince.getTime()), limit);
+        blobService.releaseAll(hashes.stream().filter(Objects::nonNull).toList());
+        return hashes.size();
+    }
+
+    /**
+     * Deletes up to {@code limit} files that were moved to the trash before {@code deletedBefore}, together with their
+     * history and the rows that refer to them. Returns the ids of the files and the number of history and file rows
+     * deleted.
+     */
+    @Transactional
+    public PurgedTrash purgeTrash(VersionedTable table, Date deletedBefore, int limit) {
+        List<Long> fileIds = new ArrayList<>();
+        List<String> hashes = new ArrayList<>();
+        jdbcTemplate.query(table.purgeTrash, (RowCallbackHandler) rs -> {
+            long fileId = rs.getLong("file_id");
+            if (!rs.wasNull()) {
+                fileIds.add(fileId);
+            }
+            hashes.add(rs.getString("content_hash"));
+        }, new Timestamp(deletedBefore.getTime()), limit);
+        blobService.releaseAll(hashes.stream().filter(Objects::nonNull).toList());
+        return new PurgedTrash(fileIds, hashes.size());
+    }
+
+    public record PurgedTrash(List<Long> fileIds, int rows) {
+    }
+
+    public enum VersionedTable {
+        MODELS("models", "models_history", "model_id",
+                "DELETE FROM model_tags WHERE model_id IN (SELECT id FROM purged)",
+                "DELETE FROM model_conformance WHERE model_id IN (SELECT id FROM purged)"),
+        SCHEMAS("schemas", "schemas_history", "schema_id",
+                "DELETE FROM model_conformance WHERE schema_id IN (SELECT id FROM purged)");
+
+        private final String findFileIds;
+        private final String deleteExpiredHistory;
+        private final String purgeTrash;
+
+        VersionedTable(String table, String historyTable, String fileColumn, String... dependentDeletes) {
+            this.findFileIds = "SELECT id FROM " + table + " WHERE id > ? ORDER BY id LIMIT ?";
+
+            // A history row's update_date is when it was superseded, so it dates the version for the monthly rule.
+            this.deleteExpiredHistory =
+                    "DELETE FROM " + historyTable + " WHERE id IN (" +
+                            "SELECT id FROM " + historyTable + " WHERE id IN (" +
+                            "SELECT id FROM (" +
+                            "SELECT id, update_date, " +
+                            "row_number() OVER (PARTITION BY " + fileColumn + " ORDER BY version DESC) AS recent, " +
+                            "row_number() OVER (PARTITION BY " + fileColumn + ", date_trunc('month', update_date) " +
+                            "ORDER BY version DESC) AS in_month " +
+                            "FROM " + historyTable + " WHERE " + fileColumn + " > ? AND " + fileColumn + " <= ?" +
+                            ") ranked WHERE recent > ? AND (in_month > 1 OR update_date < ?)" +
+                            ") ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                            "RETURNING content_hash";
+
+            // Data-modifying CTEs all run to completion, and foreign keys are checked once the whole statement is done.
+            StringBuilder purge = new StringBuilder("WITH purged AS (SELECT id FROM " + table +
+                    " WHERE delete_date < ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)");
+            for (int i = 0; i < dependentDeletes.length; i++) {
+                purge.append(", dependent").append(i).append(" AS (").append(dependentDeletes[i]).append(")");
+            }
+            purge.append(", history AS (DELETE FROM ").append(historyTable).append(" WHERE ").append(fileColumn)
+                    .append(" IN (SELECT id FROM purged) RETURNING content_hash)")
+                    .append(", files AS (DELETE FROM ").append(table)
+                    .append(" WHERE id IN (SELECT id FROM purged) RETURNING id, content_hash) ")
+                    .append("SELECT NULL::BIGINT AS file_id, content_hash FROM history ")
+                    .append("UNION ALL SELECT id, content_hash FROM files");
+            this.purgeTrash = purge.toString();
+        }
+    }
+}
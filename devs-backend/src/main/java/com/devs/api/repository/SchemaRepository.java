@@ -1,12 +1,20 @@
 package com.devs.api.repository;
 
 import com.devs.api.entity.Schema;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SchemaRepository extends JpaRepository<Schema, Long> {
+    @Override
+    @EntityGraph(Schema.SUMMARY_GRAPH)
+    List<Schema> findAll();
+
     Optional<Schema> findById(Long modelSchemaId);
+
+    Optional<Schema> findFirstByNameAndDeleteDateIsNullOrderByIdDesc(String name);
 }
@@ -0,0 +1,29 @@
+package com.devs.api.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.function.BiConsumer;
+
+@Repository
+public class TagIndexRepository {
+    // Models without tags come back once with a null name, so they still count as live.
+    private static final String FIND_LIVE_MODEL_TAGS =
+            "SELECT m.id, t.name FROM models m LEFT JOIN model_tags mt ON mt.model_id = m.id " +
+                    "LEFT JOIN tags t ON t.id = mt.tag_id WHERE m.user_id = ? AND m.delete_date IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TagIndexRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Streams every (model id, tag name) pair of the user's live models to the consumer, without holding them all.
+     */
+    public void forEachLiveModelTag(Long userId, BiConsumer<Long, String> consumer) {
+        jdbcTemplate.query(FIND_LIVE_MODEL_TAGS,
+                (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getString(2)), userId);
+    }
+}
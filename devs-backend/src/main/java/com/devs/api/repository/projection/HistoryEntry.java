@@ -0,0 +1,15 @@
+package com.devs.api.repository.projection;
+
+import java.util.Date;
+
+public interface HistoryEntry {
+    Long getId();
+
+    Integer getVersion();
+
+    Date getCreateDate();
+
+    Date getUpdateDate();
+
+    String getUsername();
+}
@@ -0,0 +1,9 @@
+package com.devs.api.repository.projection;
+
+public interface ModelSource {
+    Long getId();
+
+    Integer getVersion();
+
+    String getContentHash();
+}
@@ -0,0 +1,35 @@
+package com.devs.api.service;
+
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.List;
+
+@Service
+public interface BlobService {
+    /**
+     * Adds a reference to the blob with this hash, storing {@code content} if it is not stored yet. When the content
+     * replaces an earlier version of the same file, {@code previousHash} names that version.
+     */
+    void store(String hash, byte[] content, String previousHash);
+
+    byte[] load(String hash);
+
+    /**
+     * Opens the content of a blob for reading. A full snapshot is decompressed as it is read; content kept as a delta
+     * is rebuilt first.
+     */
+    InputStream open(String hash);
+
+    long size(String hash);
+
+    void release(String hash);
+
+    void releaseAll(List<String> hashes);
+
+    /**
+     * Deletes up to {@code limit} blobs that are no longer referenced, releasing the blobs they were deltas against,
+     * and returns how many were deleted.
+     */
+    int deleteUnreferenced(int limit);
+}
@@ -0,0 +1,13 @@
+package com.devs.api.service;
+
+import com.devs.api.dto.SourceDiffDTO;
+import org.springframework.stereotype.Service;
+
+@Service
+public interface DiffService {
+    /**
+     * Compares two versions of a file given the content hashes they point at. Stored content never changes, so the
+     * comparison is cached by hash pair and repeated requests for the same change are served from memory.
+     */
+    SourceDiffDTO diff(Integer fromVersion, String fromHash, Integer toVersion, String toHash);
+}
@@ -1,5 +1,6 @@
 package com.devs.api.service;
 
+import com.devs.api.dto.HistoryPageDTO;
 import com.devs.api.entity.ModelHistory;
 import org.springframework.stereotype.Service;
 
@@ -15,4 +16,10 @@ public interface ModelHistoryService {
     Optional<ModelHistory> findById(Long modelHistoryId);
 
     Optional<ModelHistory> findByModelIdAndVersion(Long modelId, Integer version);
+
+    /**
+     * Returns up to {@code size} versions older than {@code beforeVersion}, newest first, without their sources.
+     * A null {@code beforeVersion} starts at the newest version.
+     */
+    HistoryPageDTO getModelHistoryPage(Long modelId, Integer beforeVersion, int size);
 }
\ No newline at end of file
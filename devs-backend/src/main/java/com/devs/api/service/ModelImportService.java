@@ -0,0 +1,14 @@
+package com.devs.api.service;
+
+import com.devs.api.dto.BulkImportReportDTO;
+import com.devs.api.entity.Schema;
+import com.devs.api.entity.User;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface ModelImportService {
+    BulkImportReportDTO importArchive(MultipartFile archive, Schema schema, List<String> tags, String description,
+                                      int maxErrors, User user) throws IOException;
+}
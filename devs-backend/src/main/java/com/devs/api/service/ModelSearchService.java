@@ -0,0 +1,41 @@
+package com.devs.api.service;
+
+import com.devs.api.entity.Model;
+
+import java.util.List;
+
+public interface ModelSearchService {
+    /**
+     * Brings the model's search document up to date. The content is parsed only when it changed since it was last
+     * indexed. Must run after the model's changes are flushed, in the same transaction.
+     */
+    void index(Model model);
+
+    /**
+     * Indexes newly inserted models, whose content is at hand.
+     */
+    void indexAll(List<Model> models);
+
+    /**
+     * Rebuilds the documents of the models carrying the tag.
+     */
+    void refreshTagged(Long tagId);
+
+    /**
+     * Returns a page of the user's live models matching the query, most relevant first. The page size is capped by
+     * {@code application.search.max-page-size}.
+     */
+    SearchPage search(Long userId, String query, int offset, int size);
+
+    /**
+     * Indexes the content of models whose search row is missing or was built from an older version, such as models
+     * that existed before the index did.
+     */
+    void reindexStale();
+
+    /**
+     * {@code nextOffset} is the offset of the next page, or null on the last page.
+     */
+    record SearchPage(List<Model> models, Integer nextOffset) {
+    }
+}
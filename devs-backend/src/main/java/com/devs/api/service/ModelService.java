@@ -1,7 +1,13 @@
 package com.devs.api.service;
 
 import com.devs.api.entity.Model;
+import com.devs.api.entity.ModelHistory;
 import com.devs.api.entity.Tag;
+import com.devs.api.entity.User;
+import com.devs.api.repository.ModelCursor;
+import com.devs.api.repository.ModelFilter;
+import com.devs.api.repository.ModelPageRepository.ModelPage;
+import com.devs.api.repository.ModelSort;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -11,8 +17,26 @@ import java.util.Optional;
 public interface ModelService {
     void save(Model model);
 
+    /**
+     * Saves the model and, when its source changed, the history row archiving the version it replaced, in one
+     * transaction.
+     */
+    void saveWithHistory(Model model, ModelHistory history);
+
+    Model createModel(String name, String description, List<String> tagNames, byte[] sourceFile, User user);
+
     List<Model> getModelsByUserId(Long id);
 
+    List<Model> getActiveModelsByUserId(Long userId);
+
+    List<Model> getDeletedModelsByUserId(Long userId);
+
+    /**
+     * Returns a page of the user's models in the given order, starting after {@code after}, or at the beginning when it
+     * is null. The page size is capped by {@code application.models.max-page-size}.
+     */
+    ModelPage getModelPage(ModelFilter filter, ModelSort sort, boolean descending, ModelCursor after, int size);
+
     void deleteModelById(Long modelId);
 
     Optional<Model> findById(Long modelId);
@@ -0,0 +1,42 @@
+package com.devs.api.service;
+
+import com.devs.api.entity.Model;
+
+import java.util.List;
+
+public interface ModelStructureService {
+    /**
+     * Extracts the model's components and connections into the structure index, unless they were already extracted
+     * from its current content.
+     */
+    void index(Model model);
+
+    /**
+     * Indexes newly inserted models, whose content is at hand.
+     */
+    void indexAll(List<Model> models);
+
+    /**
+     * Counts the user's live models that declare the component.
+     */
+    long countModelsUsing(Long userId, String component);
+
+    /**
+     * Returns a page of the user's live models with a connection from {@code source} to {@code target}, newest first,
+     * starting below {@code beforeId}, or at the newest when it is null. The page size is capped by
+     * {@code application.structure.max-page-size}.
+     */
+    CouplingPage findCoupling(Long userId, String source, String target, Long beforeId, int size);
+
+    /**
+     * Indexes models whose structure is missing or was extracted from an older version, such as models that existed
+     * before the index did.
+     */
+    void reindexStale();
+
+    /**
+     * {@code nextBefore} is the model id to pass as {@code before} for the next page, or null on the last page.
+     */
+    record CouplingPage(List<Model> models, Long nextBefore) {
+    }
+}
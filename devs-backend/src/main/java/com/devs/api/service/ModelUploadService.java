@@ -0,0 +1,17 @@
+package com.devs.api.service;
+
+import com.devs.api.dto.UploadJobDTO;
+import com.devs.api.entity.Schema;
+import com.devs.api.entity.User;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+public interface ModelUploadService {
+    UploadJobDTO submit(MultipartFile file, String name, String description, List<String> tags, Schema schema,
+                        int maxErrors, User user) throws IOException;
+
+    Optional<UploadJobDTO> getJob(String jobId, Long userId);
+}
@@ -0,0 +1,9 @@
+package com.devs.api.service;
+
+public interface RetentionService {
+    /**
+     * Deletes history versions outside the retention policy, purges files that have been in the trash too long and
+     * removes the blobs nothing references any more.
+     */
+    void compact();
+}
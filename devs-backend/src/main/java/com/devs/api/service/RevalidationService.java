@@ -0,0 +1,14 @@
+package com.devs.api.service;
+
+import com.devs.api.dto.RevalidationJobDTO;
+import com.devs.api.entity.Schema;
+
+import java.util.Optional;
+
+public interface RevalidationService {
+    RevalidationJobDTO start(Schema schema);
+
+    Optional<RevalidationJobDTO> getJob(String jobId);
+
+    Optional<RevalidationJobDTO> getLatestJob(Long schemaId);
+}
@@ -1,6 +1,7 @@
 package com.devs.api.service;
 
 import com.devs.api.entity.Schema;
+import com.devs.api.entity.SchemaHistory;
 
 import java.util.List;
 import java.util.Optional;
@@ -8,6 +9,12 @@ import java.util.Optional;
 public interface SchemaService {
     void save(Schema schema);
 
+    /**
+     * Saves the schema and, when its source changed, the history row archiving the version it replaced, in one
+     * transaction.
+     */
+    void saveWithHistory(Schema schema, SchemaHistory history);
+
     Optional<Schema> findById(Long modelSchemaId);
 
     List<Schema> findAll();
@@ -0,0 +1,38 @@
+package com.devs.api.service;
+
+import com.devs.api.entity.Model;
+
+import java.util.List;
+import java.util.Map;
+
+public interface TagIndexService {
+    /**
+     * Returns a page of the user's live models that carry every tag in {@code all}, at least one tag in {@code any}
+     * when it is not empty, and no tag in {@code none}, newest first, starting below {@code beforeId}. The result also
+     * holds the number of matching models and, for every tag, how many of them carry it. Tags are matched and counted
+     * by name, so a system tag and a user tag of the same name are one tag here.
+     */
+    TagFilterPage filter(Long userId, List<String> all, List<String> any, List<String> none, Long beforeId, int size);
+
+    /**
+     * Records the model's current tags and state once the surrounding transaction commits, or right away outside one.
+     */
+    void modelChanged(Model model);
+
+    /**
+     * Drops the model from the index once the surrounding transaction commits.
+     */
+    void modelDeleted(Model model);
+
+    /**
+     * Discards the index of a user whose tags changed in ways not tracked model by model, such as a tag being renamed.
+     * A null user, as for system tags, discards every index.
+     */
+    void invalidate(Long userId);
+
+    /**
+     * {@code nextBefore} is the model id to pass as {@code before} for the next page, or null on the last page.
+     */
+    record TagFilterPage(List<Model> models, Long nextBefore, int total, Map<String, Integer> facets) {
+    }
+}
@@ -0,0 +1,156 @@
+package com.devs.api.service.impl;
+
+import com.devs.api.repository.BlobRepository;
+import com.devs.api.repository.BlobRepository.DeletedBlob;
+import com.devs.api.repository.BlobRepository.StoredBlob;
+import com.devs.api.service.BlobService;
+import com.devs.api.storage.BinaryDelta;
+import com.devs.api.storage.BlobStore;
+import com.devs.api.storage.PayloadCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Service
+public class BlobServiceImpl implements BlobService {
+
+    private final BlobRepository blobRepository;
+    private final BlobStore blobStore;
+    private final PayloadCodec payloadCodec;
+
+    @Value("${application.blobs.snapshot-interval}")
+    private int snapshotInterval;
+
+    public BlobServiceImpl(BlobRepository blobRepository, BlobStore blobStore, PayloadCodec payloadCodec) {
+        this.blobRepository = blobRepository;
+        this.blobStore = blobStore;
+        this.payloadCodec = payloadCodec;
+    }
+
+    @Override
+    @Transactional
+    public void store(String hash, byte[] content, String previousHash) {
+        // A failed insert means another transaction stored the same content, but it may have been collected again
+        // before it could be retained, in which case it is inserted anew.
+        while (!blobRepository.retain(hash)) {
+            if (content == null) {
+                throw new IllegalStateException("Blob " + hash + " is not stored and its content is not available");
+            }
+
+            byte[] payload = payloadCodec.encode(content);
+            if (blobRepository.insert(hash, content.length, blobStore.inRow() ? payload : null)) {
+                if (!blobStore.inRow()) {
+                    blobStore.write(hash, null, payload);
+                }
+                if (previousHash != null && !previousHash.equals(hash)) {
+                    rebaseOnto(previousHash, hash, content);
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public byte[] load(String hash) {
+        List<StoredBlob> chain = blobRepository.findChain(hash);
+        if (chain.isEmpty()) {
+            throw new IllegalStateException("Blob " + hash + " is not stored");
+        }
+
+        StoredBlob snapshot = chain.get(chain.size() - 1);
+        if (snapshot.deltaBaseHash() != null) {
+            throw new IllegalStateException("Delta base " + snapshot.deltaBaseHash() + " of blob " + hash
+                    + " is not stored");
+        }
+
+        byte[] content = PayloadCodec.decode(payload(snapshot));
+        for (int i = chain.size() - 2; i >= 0; i--) {
+            content = BinaryDelta.apply(content, PayloadCodec.decode(payload(chain.get(i))));
+        }
+        return content;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InputStream open(String hash) {
+        StoredBlob blob = blobRepository.find(hash)
+                .orElseThrow(() -> new IllegalStateException("Blob " + hash + " is not stored"));
+        if (blob.deltaBaseHash() != null) {
+            return new ByteArrayInputStream(load(hash));
+        }
+        if (blob.payload() != null) {
+            return PayloadCodec.decodeStream(blob.payload());
+        }
+        return blobStore.open(hash);
+    }
+
+    @Override
+    public long size(String hash) {
+        return blobRepository.findSize(hash)
+                .orElseThrow(() -> new IllegalStateException("Blob " + hash + " is not stored"));
+    }
+
+    @Override
+    @Transactional
+    public void release(String hash) {
+        blobRepository.release(hash);
+    }
+
+    @Override
+    @Transactional
+    public void releaseAll(List<String> hashes) {
+        if (!hashes.isEmpty()) {
+            blobRepository.releaseAll(hashes);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int deleteUnreferenced(int limit) {
+        List<DeletedBlob> deleted = blobRepository.deleteUnreferenced(limit);
+        for (DeletedBlob blob : deleted) {
+            if (!blob.inline()) {
+                blobStore.delete(blob.hash(), blob.deltaBaseHash());
+            }
+        }
+        // A deleted delta no longer holds its base, which may leave the base unreferenced for the next batch.
+        releaseAll(deleted.stream().map(DeletedBlob::deltaBaseHash).filter(Objects::nonNull).toList());
+        return deleted.size();
+    }
+
+    // The newest version of a file stays a full copy, so current content is read without applying deltas. The
+    // version it replaces becomes a delta against it unless that would push a chain past the snapshot interval.
+    private void rebaseOnto(String previousHash, String hash, byte[] content) {
+        Optional<StoredBlob> previous = blobRepository.find(previousHash);
+        if (previous.isEmpty() || previous.get().deltaBaseHash() != null) {
+            return;
+        }
+        if (blobRepository.findMaxDependentDepth(previousHash) + 1 >= snapshotInterval) {
+            return;
+        }
+
+        byte[] previousPayload = payload(previous.get());
+        byte[] delta = payloadCodec.encode(BinaryDelta.encode(content, PayloadCodec.decode(previousPayload)));
+        if (delta.length < previousPayload.length
+                && blobRepository.rebase(previousHash, hash, blobStore.inRow() ? delta : null)) {
+            if (!blobStore.inRow()) {
+                blobStore.write(previousHash, hash, delta);
+            }
+            if (previous.get().payload() == null) {
+                blobStore.delete(previousHash, null);
+            }
+        }
+    }
+
+    // Payloads written before the store was switched away from the database stay in their column and are read there.
+    private byte[] payload(StoredBlob blob) {
+        return blob.payload() != null ? blob.payload() : blobStore.read(blob.hash(), blob.deltaBaseHash());
+    }
+}
@@ -0,0 +1,185 @@
+package com.devs.api.service.impl;
+
+import com.devs.api.cache.LruCache;
+import com.devs.api.diff.LineDiff;
+import com.devs.api.diff.XmlStructure;
+import com.devs.api.diff.XmlStructure.Part;
+import com.devs.api.dto.DiffHunkDTO;
+import com.devs.api.dto.SourceDiffDTO;
+import com.devs.api.dto.StructuralChangeDTO;
+import com.devs.api.service.BlobService;
+import com.devs.api.service.DiffService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class DiffServiceImpl implements DiffService {
+    private static final int CONTEXT_LINES = 3;
+
+    private final BlobService blobService;
+    private final LruCache<DiffKey, SourceDiff> diffs;
+    private final long maxCachedChars;
+
+    public DiffServiceImpl(BlobService blobService, @Value("${application.diff.cache.max-size}") int maxSize,
+                           @Value("${application.diff.cache.max-entry-kb}") int maxEntryKb) {
+        this.blobService = blobService;
+        this.diffs = new LruCache<>(maxSize);
+        // Hunk lines are Java strings, so a kilobyte holds about 512 characters.
+        this.maxCachedChars = maxEntryKb * 512L;
+    }
+
+    @Override
+    public SourceDiffDTO diff(Integer fromVersion, String fromHash, Integer toVersion, String toHash) {
+        DiffKey key = new DiffKey(fromHash, toHash);
+        SourceDiff diff = diffs.get(key);
+        if (diff == null) {
+            diff = compare(blobService.load(fromHash), blobService.load(toHash));
+            if (textLength(diff.hunks()) <= maxCachedChars) {
+                diffs.put(key, diff);
+            }
+        }
+        return new SourceDiffDTO(fromVersion, toVersion, diff.structureCompared(), diff.structuralChanges(),
+                diff.linesAdded(), diff.linesRemoved(), diff.hunks());
+    }
+
+    private SourceDiff compare(byte[] from, byte[] to) {
+        List<String> fromLines = lines(from);
+        List<String> toLines = lines(to);
+        LineDiff.Result result = LineDiff.diff(fromLines, toLines);
+
+        int linesRemoved = 0;
+        for (boolean deleted : result.deleted()) {
+            linesRemoved += deleted ? 1 : 0;
+        }
+        int linesAdded = 0;
+        for (boolean inserted : result.inserted()) {
+            linesAdded += inserted ? 1 : 0;
+        }
+
+        // Structure is compared only when both versions parse; the line diff is returned either way.
+        Map<Part, String> fromParts = XmlStructure.parse(from);
+        Map<Part, String> toParts = XmlStructure.parse(to);
+        boolean structureCompared = fromParts != null && toParts != null;
+        List<StructuralChangeDTO> structuralChanges = structureCompared
+                ? structuralChanges(fromParts, toParts)
+                : List.of();
+
+        return new SourceDiff(structureCompared, structuralChanges, linesAdded, linesRemoved,
+                hunks(fromLines, toLines, result));
+    }
+
+    private List<StructuralChangeDTO> structuralChanges(Map<Part, String> fromParts, Map<Part, String> toParts) {
+        List<StructuralChangeDTO> changes = new ArrayList<>();
+        fromParts.forEach((part, fingerprint) -> {
+            String toFingerprint = toParts.get(part);
+            if (toFingerprint == null) {
+                changes.add(new StructuralChangeDTO(part.kind(), part.label(), "REMOVED"));
+            } else if (!toFingerprint.equals(fingerprint)) {
+                changes.add(new StructuralChangeDTO(part.kind(), part.label(), "CHANGED"));
+            }
+        });
+        toParts.keySet().stream()
+                .filter(part -> !fromParts.containsKey(part))
+                .forEach(part -> changes.add(new StructuralChangeDTO(part.kind(), part.label(), "ADDED")));
+        return List.copyOf(changes);
+    }
+
+    // Groups changed lines into unified-diff hunks with a few lines of context; changes closer than twice the
+    // context share a hunk.
+    private List<DiffHunkDTO> hunks(List<String> from, List<String> to, LineDiff.Result result) {
+        boolean[] deleted = result.deleted();
+        boolean[] inserted = result.inserted();
+        List<int[]> blocks = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < from.size() || j < to.size()) {
+            if (i < from.size() && j < to.size() && !deleted[i] && !inserted[j]) {
+                i++;
+                j++;
+                continue;
+            }
+            int fromStart = i;
+            int toStart = j;
+            while (i < from.size() && deleted[i]) {
+                i++;
+            }
+            while (j < to.size() && inserted[j]) {
+                j++;
+            }
+            if (i == fromStart && j == toStart) {
+                throw new IllegalStateException("Line diff is inconsistent at line " + (i + 1));
+            }
+            blocks.add(new int[]{fromStart, i, toStart, j});
+        }
+
+        List<DiffHunkDTO> hunks = new ArrayList<>();
+        int first = 0;
+        while (first < blocks.size()) {
+            int last = first;
+            while (last + 1 < blocks.size() && blocks.get(last + 1)[0] - blocks.get(last)[1] <= 2 * CONTEXT_LINES) {
+                last++;
+            }
+            int fromStart = Math.max(0, blocks.get(first)[0] - CONTEXT_LINES);
+            int toStart = Math.max(0, blocks.get(first)[2] - CONTEXT_LINES);
+            int fromEnd = Math.min(from.size(), blocks.get(last)[1] + CONTEXT_LINES);
+            int toEnd = Math.min(to.size(), blocks.get(last)[3] + CONTEXT_LINES);
+
+            List<String> lines = new ArrayList<>();
+            int line = fromStart;
+            for (int block = first; block <= last; block++) {
+                int[] change = blocks.get(block);
+                for (; line < change[0]; line++) {
+                    lines.add(" " + from.get(line));
+                }
+                for (int removed = change[0]; removed < change[1]; removed++) {
+                    lines.add("-" + from.get(removed));
+                }
+                for (int added = change[2]; added < change[3]; added++) {
+                    lines.add("+" + to.get(added));
+                }
+                line = change[1];
+            }
+            for (; line < fromEnd; line++) {
+                lines.add(" " + from.get(line));
+            }
+
+            hunks.add(new DiffHunkDTO(fromStart + 1, fromEnd - fromStart, toStart + 1, toEnd - toStart,
+                    List.copyOf(lines)));
+            first = last + 1;
+        }
+        return List.copyOf(hunks);
+    }
+
+    private static long textLength(List<DiffHunkDTO> hunks) {
+        long length = 0;
+        for (DiffHunkDTO hunk : hunks) {
+            for (String line : hunk.getLines()) {
+                length += line.length();
+            }
+        }
+        return length;
+    }
+
+    private static List<String> lines(byte[] content) {
+        String text = new String(content, StandardCharsets.UTF_8);
+        if (text.isEmpty()) {
+            return List.of();
+        }
+        String[] lines = text.split("\r\n|\n|\r", -1);
+        int length = lines[lines.length - 1].isEmpty() ? lines.length - 1 : lines.length;
+        return Arrays.asList(lines).subList(0, length);
+    }
+
+    private record DiffKey(String fromHash, String toHash) {
+    }
+
+    private record SourceDiff(boolean structureCompared, List<StructuralChangeDTO> structuralChanges, int linesAdded,
+                              int linesRemoved, List<DiffHunkDTO> hunks) {
+    }
+}
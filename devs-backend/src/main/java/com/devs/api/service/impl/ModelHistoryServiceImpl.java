@@ -1,9 +1,16 @@
 package com.devs.api.service.impl;
 
+import com.devs.api.dto.HistoryDTO;
+import com.devs.api.dto.HistoryPageDTO;
 import com.devs.api.entity.ModelHistory;
 import com.devs.api.repository.ModelHistoryRepository;
+import com.devs.api.repository.Pages;
+import com.devs.api.repository.Pages.Slice;
+import com.devs.api.repository.projection.HistoryEntry;
 import com.devs.api.service.ModelHistoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,9 +21,13 @@ public class ModelHistoryServiceImpl implements ModelHistoryService {
 
     private final ModelHistoryRepository modelHistoryRepository;
 
+    private final int maxPageSize;
+
     @Autowired
-    public ModelHistoryServiceImpl(ModelHistoryRepository modelHistoryRepository) {
+    public ModelHistoryServiceImpl(ModelHistoryRepository modelHistoryRepository,
+                                   @Value("${application.history.max-page-size}") int maxPageSize) {
         this.modelHistoryRepository = modelHistoryRepository;
+        this.maxPageSize = maxPageSize;
     }
 
     @Override
@@ -38,4 +49,16 @@ public class ModelHistoryServiceImpl implements ModelHistoryService {
     public Optional<ModelHistory> findByModelIdAndVersion(Long modelId, Integer version) {
         return modelHistoryRepository.findByModelIdAndVersion(modelId, version);
     }
-}
\ No newline at end of file
+
+    @Override
+    public HistoryPageDTO getModelHistoryPage(Long modelId, Integer beforeVersion, int size) {
+        int pageSize = Pages.clamp(size, maxPageSize);
+        Slice<HistoryEntry> entries = Pages.slice(modelHistoryRepository.findEntriesBefore(modelId,
+                beforeVersion != null ? beforeVersion : Integer.MAX_VALUE,
+                PageRequest.of(0, Pages.fetchLimit(pageSize))), pageSize);
+
+        List<HistoryDTO> items = entries.items().stream().map(HistoryDTO::convertToHistoryDTO).toList();
+        HistoryEntry last = entries.last();
+        return new HistoryPageDTO(items, last != null ? last.getVersion() : null);
+    }
+}
@@ -0,0 +1,210 @@
+package com.devs.api.service.impl;
+
+import com.devs.api.dto.BulkImportEntryDTO;
+import com.devs.api.dto.BulkImportReportDTO;
+import com.devs.api.entity.Model;
+import com.devs.api.entity.Schema;
+import com.devs.api.entity.Tag;
+import com.devs.api.entity.User;
+import com.devs.api.repository.ModelBatchRepository;
+import com.devs.api.service.ModelImportService;
+import com.devs.api.service.ModelService;
+import com.devs.api.validation.ModelValidator;
+import com.devs.api.validation.ValidationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+@Service
+public class ModelImportServiceImpl implements ModelImportService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModelImportServiceImpl.class);
+
+    public static final String IMPORTED = "IMPORTED";
+    public static final String INVALID = "INVALID";
+    public static final String FAILED = "FAILED";
+
+    private final ModelValidator modelValidator;
+    private final ModelService modelService;
+    private final ModelBatchRepository modelBatchRepository;
+    private final ThreadPoolTaskExecutor validationExecutor;
+
+    @Value("${application.models.import.batch-size}")
+    private int batchSize;
+
+    @Value("${application.models.import.max-batch-size-mb}")
+    private int maxBatchSizeMb;
+
+    @Value("${application.models.import.max-entry-size-mb}")
+    private int maxEntrySizeMb;
+
+    public ModelImportServiceImpl(ModelValidator modelValidator, ModelService modelService,
+                                  ModelBatchRepository modelBatchRepository,
+                                  @Qualifier("validationExecutor") ThreadPoolTaskExecutor validationExecutor) {
+        this.modelValidator = modelValidator;
+        this.modelService = modelService;
+        this.modelBatchRepository = modelBatchRepository;
+        this.validationExecutor = validationExecutor;
+    }
+
+    @Override
+    public BulkImportReportDTO importArchive(MultipartFile archive, Schema schema, List<String> tags,
+                                             String description, int maxErrors, User user) throws IOException {
+        long start = System.currentTimeMillis();
+        BulkImportReportDTO report = new BulkImportReportDTO();
+
+        List<Tag> modelTags = tags != null ? modelService.createOrUpdateTags(tags, user.getId()) : List.of();
+        String modelDescription = description != null ? description
+                : "Imported from " + archive.getOriginalFilename();
+
+        // Entries are read sequentially, validated in parallel and persisted one chunk at a time, so at most
+        // one chunk of sources is held in memory. A chunk is cut by entry count or by its total size.
+        long maxChunkBytes = maxBatchSizeMb * 1024L * 1024L;
+        List<PendingEntry> chunk = new ArrayList<>(batchSize);
+        long chunkBytes = 0;
+        try (ZipInputStream zip = new ZipInputStream(archive.getInputStream())) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (!isModelEntry(entry)) {
+                    continue;
+                }
+
+                byte[] content = readEntry(zip);
+                if (content == null) {
+                    report.getEntries().add(new BulkImportEntryDTO(entry.getName(), FAILED, null,
+                            "File exceeds the maximum size of " + maxEntrySizeMb + " MB."));
+                    continue;
+                }
+
+                Future<ValidationResult> result = validationExecutor.submit(() ->
+                        modelValidator.validate(new ByteArrayResource(content), schema, maxErrors));
+                chunk.add(new PendingEntry(entry.getName(), content, result));
+                chunkBytes += content.length;
+
+                if (chunk.size() >= batchSize || chunkBytes >= maxChunkBytes) {
+                    persistChunk(chunk, modelTags, modelDescription, user, report);
+                    chunk.clear();
+                    chunkBytes = 0;
+                }
+            }
+        }
+        persistChunk(chunk, modelTags, modelDescription, user, report);
+
+        report.setTotal(report.getEntries().size());
+        report.setImported((int) report.getEntries().stream().filter(e -> IMPORTED.equals(e.getStatus())).count());
+        report.setFailed(report.getTotal() - report.getImported());
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        LOGGER.info("Imported {} of {} models from {} in {} ms", report.getImported(), report.getTotal(),
+                archive.getOriginalFilename(), report.getElapsedMillis());
+        return report;
+    }
+
+    private void persistChunk(List<PendingEntry> chunk, List<Tag> modelTags, String description, User user,
+                              BulkImportReportDTO report) {
+        List<Model> models = new ArrayList<>();
+        List<BulkImportEntryDTO> entries = new ArrayList<>();
+
+        for (PendingEntry pending : chunk) {
+            BulkImportEntryDTO entry = new BulkImportEntryDTO();
+            entry.setFileName(pending.fileName());
+            entries.add(entry);
+
+            try {
+                ValidationResult result = pending.result().get();
+                if (!result.isValid()) {
+                    entry.setStatus(INVALID);
+                    entry.setErrorMessage(result.getErrorMessage());
+                    continue;
+                }
+            } catch (ExecutionException e) {
+                LOGGER.error("Error validating " + pending.fileName() + ": " + e.getCause().getMessage());
+                entry.setStatus(FAILED);
+                entry.setErrorMessage("Failed to validate model.");
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Bulk import interrupted", e);
+            }
+
+            Model model = new Model();
+            model.setName(toModelName(pending.fileName()));
+            model.setDescription(description);
+            model.setSourceFile(pending.content());
+            model.setTags(modelTags);
+            model.setCreateDate(new Date());
+            model.setUser(user);
+            model.setVersion(1);
+            models.add(model);
+            entry.setStatus(IMPORTED);
+        }
+
+        // Each chunk commits on its own, so a failed chunk is reported as failed while the chunks before it stay
+        // imported and the import goes on with the next one.
+        boolean inserted;
+        try {
+            modelBatchRepository.insertAll(models);
+            inserted = true;
+        } catch (RuntimeException e) {
+            LOGGER.error("Error saving " + models.size() + " imported models: " + e.getMessage());
+            inserted = false;
+        }
+
+        int modelIndex = 0;
+        for (BulkImportEntryDTO entry : entries) {
+            if (!IMPORTED.equals(entry.getStatus())) {
+                continue;
+            }
+            if (inserted) {
+                entry.setModelId(models.get(modelIndex++).getId());
+            } else {
+                entry.setStatus(FAILED);
+                entry.setErrorMessage("Failed to save model.");
+            }
+        }
+        report.getEntries().addAll(entries);
+    }
+
+    private boolean isModelEntry(ZipEntry entry) {
+        String name = entry.getName();
+        return !entry.isDirectory() && !name.startsWith("__MACOSX/") && name.toLowerCase().endsWith(".xml");
+    }
+
+    private byte[] readEntry(InputStream zip) throws IOException {
+        long maxBytes = maxEntrySizeMb * 1024L * 1024L;
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = zip.read(buffer)) != -1) {
+            total += read;
+            if (total > maxBytes) {
+                return null;
+            }
+            content.write(buffer, 0, read);
+        }
+        return content.toByteArray();
+    }
+
+    private String toModelName(String entryName) {
+        String fileName = entryName.substring(entryName.lastIndexOf('/') + 1);
+        return fileName.substring(0, fileName.length() - ".xml".length());
+    }
+
+    private record PendingEntry(String fileName, byte[] content, Future<ValidationResult> result) {
+    }
+}
@@ -0,0 +1,142 @@
+package com.devs.api.service.impl;
+
+import com.devs.api.diff.XmlStructure;
+import com.devs.api.entity.Model;
+import com.devs.api.repository.ModelRepository;
+import com.devs.api.repository.ModelSearchRepository;
+import com.devs.api.repository.ModelSearchRepository.IndexedContent;
+import com.devs.api.repository.Pages;
+import com.devs.api.repository.Pages.Slice;
+import com.devs.api.service.BlobService;
+import com.devs.api.service.ModelSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class ModelSearchServiceImpl implements ModelSearchService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModelSearchServiceImpl.class);
+
+    private final ModelSearchRepository modelSearchRepository;
+    private final ModelRepository modelRepository;
+    private final BlobService blobService;
+
+    @Value("${application.search.max-page-size}")
+    private int maxPageSize;
+
+    @Value("${application.search.reindex.batch-size}")
+    private int reindexBatchSize;
+
+    public ModelSearchServiceImpl(ModelSearchRepository modelSearchRepository, ModelRepository modelRepository,
+                                  BlobService blobService) {
+        this.modelSearchRepository = modelSearchRepository;
+        this.modelRepository = modelRepository;
+        this.blobService = blobService;
+    }
+
+    @Override
+    public void index(Model model) {
+        if (modelSearchRepository.isContentIndexed(model.getId(), model.getContentHash())) {
+            modelSearchRepository.refresh(model.getId());
+        } else {
+            modelSearchRepository.indexAll(List.of(new IndexedContent(model.getId(), model.getContentHash(),
+                    contentTerms(model.getSourceFile()))));
+        }
+    }
+
+    @Override
+    public void indexAll(List<Model> models) {
+        modelSearchRepository.indexAll(models.stream()
+                .map(model -> new IndexedContent(model.getId(), model.getContentHash(),
+                        contentTerms(model.getSourceFile())))
+                .toList());
+    }
+
+    @Override
+    public void refreshTagged(Long tagId) {
+        modelSearchRepository.refreshTagged(tagId);
+    }
+
+    @Override
+    public SearchPage search(Long userId, String query, int offset, int size) {
+        int pageSize = Pages.clamp(size, maxPageSize);
+        int start = Math.max(0, offset);
+        Slice<Long> ids = Pages.slice(
+                modelSearchRepository.search(userId, query, start, Pages.fetchLimit(pageSize)), pageSize);
+
+        List<Model> models = modelRepository.findSummariesInOrder(ids.items());
+        return new SearchPage(models, ids.hasMore() ? start + pageSize : null);
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${application.search.reindex.initial-delay}",
+            fixedDelayString = "${application.search.reindex.interval}")
+    public void reindexStale() {
+        try {
+            int indexed = 0;
+            Long afterId = 0L;
+            List<IndexedContent> stale;
+            do {
+                stale = modelSearchRepository.findStaleAfter(afterId, reindexBatchSize);
+                for (IndexedContent content : stale) {
+                    byte[] source = null;
+                    if (content.contentHash() != null) {
+                        source = load(content);
+                        if (source == null) {
+                            continue;
+                        }
+                    }
+                    modelSearchRepository.indexAll(List.of(new IndexedContent(content.modelId(),
+                            content.contentHash(), contentTerms(source))));
+                    indexed++;
+                }
+                if (!stale.isEmpty()) {
+                    afterId = stale.get(stale.size() - 1).modelId();
+                }
+            } while (stale.size() == reindexBatchSize);
+
+            if (indexed > 0) {
+                LOGGER.info("Search index: content of " + indexed + " models indexed");
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error in reindexStale: " + e.getMessage());
+        }
+    }
+
+    // A model whose content cannot be read is skipped and left stale, so it does not hold up the models after it and
+    // the next run tries it again.
+    private byte[] load(IndexedContent content) {
+        try {
+            return blobService.load(content.contentHash());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Skipping model " + content.modelId() + " in the search index: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The names of the model's components and the endpoints of its connections, or null when the content is not
+     * well-formed XML.
+     */
+    private static String contentTerms(byte[] source) {
+        Map<XmlStructure.Part, String> parts = source != null ? XmlStructure.parse(source) : null;
+        if (parts == null) {
+            return null;
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (XmlStructure.Part part : parts.keySet()) {
+            terms.add(part.name());
+            if (part.target() != null) {
+                terms.add(part.target());
+            }
+        }
+        return String.join(" ", terms);
+    }
+}
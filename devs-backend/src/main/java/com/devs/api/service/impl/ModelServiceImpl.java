@@ -1,11 +1,25 @@
 package com.devs.api.service.impl;
 
 import com.devs.api.entity.Model;
+import com.devs.api.entity.ModelHistory;
 import com.devs.api.entity.Tag;
+import com.devs.api.entity.User;
+import com.devs.api.repository.ModelCursor;
+import com.devs.api.repository.ModelFilter;
+import com.devs.api.repository.ModelHistoryRepository;
+import com.devs.api.repository.ModelPageRepository;
+import com.devs.api.repository.ModelPageRepository.ModelPage;
 import com.devs.api.repository.ModelRepository;
+import com.devs.api.repository.ModelSort;
+import com.devs.api.repository.Pages;
 import com.devs.api.repository.TagRepository;
+import com.devs.api.service.ModelSearchService;
 import com.devs.api.service.ModelService;
+import com.devs.api.service.ModelStructureService;
+import com.devs.api.service.TagIndexService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -17,16 +31,71 @@ public class ModelServiceImpl implements ModelService {
 
     private final ModelRepository modelRepository;
 
+    private final ModelHistoryRepository modelHistoryRepository;
+
+    private final ModelPageRepository modelPageRepository;
+
     private final TagRepository tagRepository;
 
-    public ModelServiceImpl(ModelRepository modelRepository, TagRepository tagRepository) {
+    private final ModelSearchService modelSearchService;
+
+    private final ModelStructureService modelStructureService;
+
+    private final TagIndexService tagIndexService;
+
+    private final int maxPageSize;
+
+    public ModelServiceImpl(ModelRepository modelRepository, ModelHistoryRepository modelHistoryRepository,
+                            ModelPageRepository modelPageRepository, TagRepository tagRepository,
+                            ModelSearchService modelSearchService, ModelStructureService modelStructureService,
+                            TagIndexService tagIndexService,
+                            @Value("${application.models.max-page-size}") int maxPageSize) {
         this.modelRepository = modelRepository;
+        this.modelHistoryRepository = modelHistoryRepository;
+        this.modelPageRepository = modelPageRepository;
         this.tagRepository = tagRepository;
+        this.modelSearchService = modelSearchService;
+        this.modelStructureService = modelStructureService;
+        this.tagIndexService = tagIndexService;
+        this.maxPageSize = maxPageSize;
     }
 
     @Override
+    @Transactional
     public void save(Model model) {
-        modelRepository.save(model);
+        index(modelRepository.saveAndFlush(model));
+    }
+
+    @Override
+    @Transactional
+    public void saveWithHistory(Model model, ModelHistory history) {
+        if (history != null) {
+            modelHistoryRepository.save(history);
+        }
+        index(modelRepository.saveAndFlush(model));
+    }
+
+    @Override
+    @Transactional
+    public Model createModel(String name, String description, List<String> tagNames, byte[] sourceFile, User user) {
+        Model model = new Model();
+        model.setName(name);
+        model.setDescription(description);
+        model.setTags(createOrUpdateTags(tagNames, user.getId()));
+        model.setCreateDate(new Date());
+        model.setUser(user);
+        model.setVersion(1);
+        model.setSourceFile(sourceFile);
+        Model saved = modelRepository.saveAndFlush(model);
+        index(saved);
+        return saved;
+    }
+
+    // Models are flushed before they are indexed, because the search document is built in SQL from the stored row.
+    private void index(Model model) {
+        modelSearchService.index(model);
+        modelStructureService.index(model);
+        tagIndexService.modelChanged(model);
     }
 
     @Override
@@ -35,7 +104,24 @@ public class ModelServiceImpl implements ModelService {
     }
 
     @Override
+    public List<Model> getActiveModelsByUserId(Long userId) {
+        return modelRepository.findByUserIdAndDeleteDateIsNull(userId);
+    }
+
+    @Override
+    public List<Model> getDeletedModelsByUserId(Long userId) {
+        return modelRepository.findByUserIdAndDeleteDateIsNotNull(userId);
+    }
+
+    @Override
+    public ModelPage getModelPage(ModelFilter filter, ModelSort sort, boolean descending, ModelCursor after, int size) {
+        return modelPageRepository.findPage(filter, sort, descending, after, Pages.clamp(size, maxPageSize));
+    }
+
+    @Override
+    @Transactional
     public void deleteModelById(Long modelId) {
+        modelRepository.findById(modelId).ifPresent(tagIndexService::modelDeleted);
         modelRepository.deleteById(modelId);
     }
 
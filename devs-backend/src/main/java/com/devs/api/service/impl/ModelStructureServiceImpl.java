@@ -0,0 +1,123 @@
+package com.devs.api.service.impl;
+
+import com.devs.api.diff.ModelStructure;
+import com.devs.api.entity.Model;
+import com.devs.api.repository.ModelRepository;
+import com.devs.api.repository.ModelStructureRepository;
+import com.devs.api.repository.ModelStructureRepository.IndexedStructure;
+import com.devs.api.repository.Pages;
+import com.devs.api.repository.Pages.Slice;
+import com.devs.api.service.BlobService;
+import com.devs.api.service.ModelStructureService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class ModelStructureServiceImpl implements ModelStructureService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModelStructureServiceImpl.class);
+
+    private final ModelStructureRepository modelStructureRepository;
+    private final ModelRepository modelRepository;
+    private final BlobService blobService;
+
+    @Value("${application.structure.max-page-size}")
+    private int maxPageSize;
+
+    @Value("${application.structure.reindex.batch-size}")
+    private int reindexBatchSize;
+
+    public ModelStructureServiceImpl(ModelStructureRepository modelStructureRepository,
+                                     ModelRepository modelRepository, BlobService blobService) {
+        this.modelStructureRepository = modelStructureRepository;
+        this.modelRepository = modelRepository;
+        this.blobService = blobService;
+    }
+
+    @Override
+    public void index(Model model) {
+        if (model.getContentHash() == null
+                || modelStructureRepository.isIndexed(model.getId(), model.getContentHash())) {
+            return;
+        }
+        modelStructureRepository.replaceAll(List.of(structureOf(model)));
+    }
+
+    @Override
+    public void indexAll(List<Model> models) {
+        modelStructureRepository.replaceAll(models.stream()
+                .filter(model -> model.getContentHash() != null)
+                .map(ModelStructureServiceImpl::structureOf)
+                .toList());
+    }
+
+    @Override
+    public long countModelsUsing(Long userId, String component) {
+        return modelStructureRepository.countUsingComponent(userId, component);
+    }
+
+    @Override
+    public CouplingPage findCoupling(Long userId, String source, String target, Long beforeId, int size) {
+        int pageSize = Pages.clamp(size, maxPageSize);
+        Slice<Long> ids = Pages.slice(modelStructureRepository.findCoupling(userId, source, target,
+                beforeId != null ? beforeId : Long.MAX_VALUE, Pages.fetchLimit(pageSize)), pageSize);
+
+        List<Model> models = modelRepository.findSummariesInOrder(ids.items());
+        return new CouplingPage(models, ids.last());
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${application.structure.reindex.initial-delay}",
+            fixedDelayString = "${application.structure.reindex.interval}")
+    public void reindexStale() {
+        try {
+            int indexed = 0;
+            Long afterId = 0L;
+            List<IndexedStructure> stale;
+            do {
+                stale = modelStructureRepository.findStaleAfter(afterId, reindexBatchSize);
+                List<IndexedStructure> structures = new ArrayList<>();
+                for (IndexedStructure model : stale) {
+                    byte[] source = load(model);
+                    if (source != null) {
+                        structures.add(new IndexedStructure(model.modelId(), model.contentHash(),
+                                ModelStructure.parse(source)));
+                    }
+                }
+                modelStructureRepository.replaceAll(structures);
+                indexed += structures.size();
+                if (!stale.isEmpty()) {
+                    afterId = stale.get(stale.size() - 1).modelId();
+                }
+            } while (stale.size() == reindexBatchSize);
+
+            if (indexed > 0) {
+                LOGGER.info("Structure index: " + indexed + " models indexed");
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error in reindexStale: " + e.getMessage());
+        }
+    }
+
+    // Null when the content cannot be read. The model is then left out of the batch, so its structure stays stale and
+    // the next run retries it.
+    private byte[] load(IndexedStructure model) {
+        try {
+            return blobService.load(model.contentHash());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Skipping model " + model.modelId() + " in the structure index: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static IndexedStructure structureOf(Model model) {
+        byte[] source = model.getSourceFile();
+        return new IndexedStructure(model.getId(), model.getContentHash(),
+                source != null ? ModelStructure.parse(source) : null);
+    }
+}
@@ -0,0 +1,136 @@
+package com.devs.api.service.impl;
+
+import com.devs.api.cache.LruCache;
+import com.devs.api.dto.UploadJobDTO;
+import com.devs.api.entity.Model;
+import com.devs.api.entity.Schema;
+import com.devs.api.entity.User;
+import com.devs.api.service.ModelService;
+import com.devs.api.service.ModelUploadService;
+import com.devs.api.validation.ModelValidator;
+import com.devs.api.validation.ValidationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class ModelUploadServiceImpl implements ModelUploadService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModelUploadServiceImpl.class);
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String SUCCEEDED = "SUCCEEDED";
+    public static final String INVALID = "INVALID";
+    public static final String FAILED = "FAILED";
+
+    private static final int MAX_TRACKED_JOBS = 10_000;
+
+    private final ModelService modelService;
+    private final ModelValidator modelValidator;
+    private final ThreadPoolTaskExecutor uploadExecutor;
+    private final LruCache<String, UploadJob> jobs = new LruCache<>(MAX_TRACKED_JOBS);
+
+    public ModelUploadServiceImpl(ModelService modelService, ModelValidator modelValidator,
+                                  @Qualifier("uploadExecutor") ThreadPoolTaskExecutor uploadExecutor) {
+        this.modelService = modelService;
+        this.modelValidator = modelValidator;
+        this.uploadExecutor = uploadExecutor;
+    }
+
+    @Override
+    public UploadJobDTO submit(MultipartFile file, String name, String description, List<String> tags,
+                               Schema schema, int maxErrors, User user) throws IOException {
+        // The multipart part is removed when the request ends, so it is moved to a file the job owns first.
+        Path spooled = Files.createTempFile("devs-upload-", ".xml");
+        try {
+            file.transferTo(spooled);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+
+        UploadJob job = new UploadJob(UUID.randomUUID().toString(), user.getId(), file.getOriginalFilename());
+        jobs.put(job.id, job);
+        try {
+            // The executor rejects new work once its queue is full; callers turn that into 503.
+            uploadExecutor.execute(() -> run(job, spooled, name, description, tags, schema, maxErrors, user));
+        } catch (RuntimeException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+        return job.toDTO();
+    }
+
+    @Override
+    public Optional<UploadJobDTO> getJob(String jobId, Long userId) {
+        return Optional.ofNullable(jobs.get(jobId))
+                .filter(job -> job.userId.equals(userId))
+                .map(UploadJob::toDTO);
+    }
+
+    private void run(UploadJob job, Path spooled, String name, String description, List<String> tags,
+                     Schema schema, int maxErrors, User user) {
+        job.status = RUNNING;
+        try {
+            ValidationResult result = modelValidator.validate(new FileSystemResource(spooled), schema, maxErrors);
+            if (!result.isValid()) {
+                job.errorMessage = result.getErrorMessage();
+                job.finish(INVALID);
+                return;
+            }
+
+            Model model = modelService.createModel(name, description, tags, Files.readAllBytes(spooled), user);
+            job.modelId = model.getId();
+            job.finish(SUCCEEDED);
+        } catch (Exception e) {
+            LOGGER.error("Error in upload job " + job.id + ": " + e.getMessage());
+            job.errorMessage = "Failed to upload model.";
+            job.finish(FAILED);
+        } finally {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                LOGGER.error("Error deleting spooled upload " + spooled + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static class UploadJob {
+        private final String id;
+        private final Long userId;
+        private final String fileName;
+        private final Date createDate = new Date();
+        private volatile String status = QUEUED;
+        private volatile Long modelId;
+        private volatile String errorMessage;
+        private volatile Date endDate;
+
+        UploadJob(String id, Long userId, String fileName) {
+            this.id = id;
+            this.userId = userId;
+            this.fileName = fileName;
+        }
+
+        void finish(String finalStatus) {
+            endDate = new Date();
+            status = finalStatus;
+        }
+
+        UploadJobDTO toDTO() {
+            return new UploadJobDTO(id, status, fileName, modelId, errorMessage, createDate, endDate);
+        }
+    }
+}
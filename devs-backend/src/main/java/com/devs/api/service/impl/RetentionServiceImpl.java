@@ -0,0 +1,111 @@
+package com.devs.api.service.impl;
+
+import com.devs.api.repository.RetentionRepository;
+import com.devs.api.repository.RetentionRepository.PurgedTrash;
+import com.devs.api.repository.RetentionRepository.VersionedTable;
+import com.devs.api.service.BlobService;
+import com.devs.api.service.RetentionService;
+import com.devs.api.validation.ModelValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+
+@Service
+public class RetentionServiceImpl implements RetentionService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetentionServiceImpl.class);
+
+    private final RetentionRepository retentionRepository;
+    private final BlobService blobService;
+    private final ModelValidator modelValidator;
+
+    @Value("${application.retention.history.keep-last}")
+    private int keepLast;
+
+    @Value("${application.retention.history.keep-monthly}")
+    private int keepMonthly;
+
+    @Value("${application.retention.trash.max-age-days}")
+    private int trashMaxAgeDays;
+
+    @Value("${application.retention.batch-size}")
+    private int batchSize;
+
+    public RetentionServiceImpl(RetentionRepository retentionRepository, BlobService blobService,
+                                ModelValidator modelValidator) {
+        this.retentionRepository = retentionRepository;
+        this.blobService = blobService;
+        this.modelValidator = modelValidator;
+    }
+
+    @Override
+    @Scheduled(cron = "${application.retention.cron}")
+    public void compact() {
+        try {
+            ZonedDateTime now = ZonedDateTime.now();
+            Date monthlySince = Date.from(now.minusMonths(keepMonthly).toInstant());
+            Date deletedBefore = Date.from(now.minusDays(trashMaxAgeDays).toInstant());
+
+            for (VersionedTable table : VersionedTable.values()) {
+                int purged = purgeTrash(table, deletedBefore);
+                int expired = deleteExpiredHistory(table, monthlySince);
+                LOGGER.info("Retention on " + table + ": " + purged + " trashed rows purged, "
+                        + expired + " history rows expired");
+            }
+            LOGGER.info("Retention: " + deleteUnreferencedBlobs() + " unreferenced blobs deleted");
+        } catch (Exception e) {
+            LOGGER.error("Error in compact: " + e.getMessage());
+        }
+    }
+
+    private int purgeTrash(VersionedTable table, Date deletedBefore) {
+        int total = 0;
+        PurgedTrash purged;
+        do {
+            purged = retentionRepository.purgeTrash(table, deletedBefore, batchSize);
+            total += purged.rows();
+            // A compiled schema outlives its row in the cache, along with the schemas that import it.
+            if (table == VersionedTable.SCHEMAS) {
+                purged.fileIds().forEach(modelValidator::evict);
+            }
+        } while (purged.rows() > 0);
+        return total;
+    }
+
+    // Walks the files a range at a time, so each batch ranks the history of a bounded number of files.
+    private int deleteExpiredHistory(VersionedTable table, Date monthlySince) {
+        int total = 0;
+        Long afterId = 0L;
+        List<Long> fileIds;
+        do {
+            fileIds = retentionRepository.findFileIdsAfter(table, afterId, batchSize);
+            if (fileIds.isEmpty()) {
+                break;
+            }
+            Long lastId = fileIds.get(fileIds.size() - 1);
+            int deleted;
+            do {
+                deleted = retentionRepository.deleteExpiredHistory(table, afterId, lastId, keepLast, monthlySince,
+                        batchSize);
+                total += deleted;
+            } while (deleted == batchSize);
+            afterId = lastId;
+        } while (fileIds.size() == batchSize);
+        return total;
+    }
+
+    private int deleteUnreferencedBlobs() {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = blobService.deleteUnreferenced(batchSize);
+            total += deleted;
+        } while (deleted > 0);
+        return total;
+    }
+}
@@ -0,0 +1,203 @@
+package com.devs.api.service.impl;
+
+import com.devs.api.cache.LruCache;
+import com.devs.api.dto.ModelConformanceDTO;
+import com.devs.api.dto.RevalidationJobDTO;
+import com.devs.api.entity.Schema;
+import com.devs.api.repository.ModelConformanceRepository;
+import com.devs.api.repository.ModelRepository;
+import com.devs.api.repository.projection.ModelSource;
+import com.devs.api.service.BlobService;
+import com.devs.api.service.RevalidationService;
+import com.devs.api.validation.ModelValidator;
+import com.devs.api.validation.ValidationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.devs.api.validation.XMLValidation.FAIL_FAST;
+
+@Service
+public class RevalidationServiceImpl implements RevalidationService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RevalidationServiceImpl.class);
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String CANCELLED = "CANCELLED";
+    public static final String FAILED = "FAILED";
+
+    private static final int MAX_TRACKED_JOBS = 100;
+
+    private final ModelRepository modelRepository;
+    private final ModelConformanceRepository modelConformanceRepository;
+    private final ModelValidator modelValidator;
+    private final BlobService blobService;
+    private final ThreadPoolTaskExecutor validationExecutor;
+    private final ThreadPoolTaskExecutor revalidationExecutor;
+
+    private final LruCache<String, RevalidationJob> jobs = new LruCache<>(MAX_TRACKED_JOBS);
+    private final Map<Long, RevalidationJob> latestJobs = new ConcurrentHashMap<>();
+
+    @Value("${application.validation.revalidation.batch-size}")
+    private int batchSize;
+
+    public RevalidationServiceImpl(ModelRepository modelRepository,
+                                   ModelConformanceRepository modelConformanceRepository,
+                                   ModelValidator modelValidator, BlobService blobService,
+                                   @Qualifier("validationExecutor") ThreadPoolTaskExecutor validationExecutor,
+                                   @Qualifier("revalidationExecutor") ThreadPoolTaskExecutor revalidationExecutor) {
+        this.modelRepository = modelRepository;
+        this.modelConformanceRepository = modelConformanceRepository;
+        this.modelValidator = modelValidator;
+        this.blobService = blobService;
+        this.validationExecutor = validationExecutor;
+        this.revalidationExecutor = revalidationExecutor;
+    }
+
+    @Override
+    public RevalidationJobDTO start(Schema schema) {
+        RevalidationJob job = new RevalidationJob(UUID.randomUUID().toString(), schema.getId(), schema.getVersion());
+        jobs.put(job.id, job);
+
+        // A newer schema version makes any job still checking an older one pointless.
+        RevalidationJob previous = latestJobs.put(schema.getId(), job);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+
+        try {
+            revalidationExecutor.execute(() -> run(job, schema));
+        } catch (TaskRejectedException e) {
+            LOGGER.error("Revalidation queue is full, schema " + schema.getId() + " was not revalidated");
+            job.finish(FAILED);
+        }
+        return job.toDTO();
+    }
+
+    @Override
+    public Optional<RevalidationJobDTO> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(RevalidationJob::toDTO);
+    }
+
+    @Override
+    public Optional<RevalidationJobDTO> getLatestJob(Long schemaId) {
+        return Optional.ofNullable(latestJobs.get(schemaId)).map(RevalidationJob::toDTO);
+    }
+
+    private void run(RevalidationJob job, Schema schema) {
+        if (job.cancelled) {
+            job.finish(CANCELLED);
+            return;
+        }
+
+        job.status = RUNNING;
+        job.total = modelRepository.countByDeleteDateIsNull();
+
+        try {
+            // Models are read in keyset batches, so only one batch of sources is in memory at a time.
+            long afterId = 0;
+            while (!job.cancelled) {
+                List<ModelSource> batch = modelRepository.findSourcesAfter(afterId, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                List<Future<ModelConformanceDTO>> pending = new ArrayList<>(batch.size());
+                for (ModelSource source : batch) {
+                    pending.add(validationExecutor.submit(() -> check(source, schema)));
+                }
+
+                List<ModelConformanceDTO> conformances = new ArrayList<>(batch.size());
+                for (Future<ModelConformanceDTO> result : pending) {
+                    conformances.add(result.get());
+                }
+                modelConformanceRepository.saveAll(conformances);
+
+                for (ModelConformanceDTO conformance : conformances) {
+                    (conformance.isValid() ? job.valid : job.invalid).incrementAndGet();
+                }
+                job.processed.addAndGet(conformances.size());
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+            job.finish(job.cancelled ? CANCELLED : COMPLETED);
+            LOGGER.info("Revalidation of schema {} version {} finished: {} valid, {} invalid",
+                    job.schemaId, job.schemaVersion, job.valid.get(), job.invalid.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(FAILED);
+        } catch (Exception e) {
+            LOGGER.error("Error revalidating models against schema " + job.schemaId + ": " + e.getMessage());
+            job.finish(FAILED);
+        }
+    }
+
+    private ModelConformanceDTO check(ModelSource source, Schema schema) throws Exception {
+        ModelConformanceDTO conformance = new ModelConformanceDTO();
+        conformance.setModelId(source.getId());
+        conformance.setModelVersion(source.getVersion());
+        conformance.setSchemaId(schema.getId());
+        conformance.setSchemaVersion(schema.getVersion());
+        conformance.setCheckDate(new Date());
+
+        if (source.getContentHash() == null) {
+            conformance.setValid(false);
+            conformance.setErrorMessage("Model has no source file.");
+            return conformance;
+        }
+
+        ValidationResult result = modelValidator.validate(
+                new ByteArrayResource(blobService.load(source.getContentHash())), schema, FAIL_FAST);
+        conformance.setValid(result.isValid());
+        if (!result.isValid()) {
+            conformance.setErrorMessage(result.getErrorMessage());
+        }
+        return conformance;
+    }
+
+    private static class RevalidationJob {
+        private final String id;
+        private final Long schemaId;
+        private final Integer schemaVersion;
+        private final Date startDate = new Date();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong valid = new AtomicLong();
+        private final AtomicLong invalid = new AtomicLong();
+        private volatile String status = QUEUED;
+        private volatile long total;
+        private volatile Date endDate;
+        private volatile boolean cancelled;
+
+        RevalidationJob(String id, Long schemaId, Integer schemaVersion) {
+            this.id = id;
+            this.schemaId = schemaId;
+            this.schemaVersion = schemaVersion;
+        }
+
+        void finish(String finalStatus) {
+            endDate = new Date();
+            status = finalStatus;
+        }
+
+        RevalidationJobDTO toDTO() {
+            return new RevalidationJobDTO(id, schemaId, schemaVersion, status, total, processed.get(), valid.get(),
+                    invalid.get(), startDate, endDate);
+        }
+    }
+}
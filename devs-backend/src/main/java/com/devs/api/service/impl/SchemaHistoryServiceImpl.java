@@ -1,9 +1,16 @@
 package com.devs.api.service.impl;
 
+import com.devs.api.dto.HistoryDTO;
+import com.devs.api.dto.HistoryPageDTO;
 import com.devs.api.entity.SchemaHistory;
+import com.devs.api.repository.Pages;
+import com.devs.api.repository.Pages.Slice;
 import com.devs.api.repository.SchemaHistoryRepository;
+import com.devs.api.repository.projection.HistoryEntry;
 import com.devs.api.service.SchemaHistoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,9 +21,13 @@ public class SchemaHistoryServiceImpl implements SchemaHistoryService {
 
     private final SchemaHistoryRepository schemaHistoryRepository;
 
+    private final int maxPageSize;
+
     @Autowired
-    public SchemaHistoryServiceImpl(SchemaHistoryRepository schemaHistoryRepository) {
+    public SchemaHistoryServiceImpl(SchemaHistoryRepository schemaHistoryRepository,
+                                    @Value("${application.history.max-page-size}") int maxPageSize) {
         this.schemaHistoryRepository = schemaHistoryRepository;
+        this.maxPageSize = maxPageSize;
     }
 
     @Override
@@ -38,4 +49,16 @@ public class SchemaHistoryServiceImpl implements SchemaHistoryService {
     public Optional<SchemaHistory> findBySchemaIdAndVersion(Long schemaId, Integer version) {
         return schemaHistoryRepository.findBySchemaIdAndVersion(schemaId, version);
     }
+
+    @Override
+    public HistoryPageDTO getSchemaHistoryPage(Long schemaId, Integer beforeVersion, int size) {
+        int pageSize = Pages.clamp(size, maxPageSize);
+        Slice<HistoryEntry> entries = Pages.slice(schemaHistoryRepository.findEntriesBefore(schemaId,
+                beforeVersion != null ? beforeVersion : Integer.MAX_VALUE,
+                PageRequest.of(0, Pages.fetchLimit(pageSize))), pageSize);
+
+        List<HistoryDTO> items = entries.items().stream().map(HistoryDTO::convertToHistoryDTO).toList();
+        HistoryEntry last = entries.last();
+        return new HistoryPageDTO(items, last != null ? last.getVersion() : null);
+    }
 }
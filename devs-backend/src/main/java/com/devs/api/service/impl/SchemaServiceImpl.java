@@ -1,9 +1,12 @@
 package com.devs.api.service.impl;
 
 import com.devs.api.entity.Schema;
+import com.devs.api.entity.SchemaHistory;
+import com.devs.api.repository.SchemaHistoryRepository;
 import com.devs.api.repository.SchemaRepository;
 import com.devs.api.service.SchemaService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,8 +16,11 @@ public class SchemaServiceImpl implements SchemaService {
 
     private final SchemaRepository schemaRepository;
 
-    public SchemaServiceImpl(SchemaRepository schemaRepository) {
+    private final SchemaHistoryRepository schemaHistoryRepository;
+
+    public SchemaServiceImpl(SchemaRepository schemaRepository, SchemaHistoryRepository schemaHistoryRepository) {
         this.schemaRepository = schemaRepository;
+        this.schemaHistoryRepository = schemaHistoryRepository;
     }
 
     @Override
@@ -22,6 +28,15 @@ public class SchemaServiceImpl implements SchemaService {
         schemaRepository.save(schema);
     }
 
+    @Override
+    @Transactional
+    public void saveWithHistory(Schema schema, SchemaHistory history) {
+        if (history != null) {
+            schemaHistoryRepository.save(history);
+        }
+        schemaRepository.save(schema);
+    }
+
     @Override
     public Optional<Schema> findById(Long modelSchemaId) {
         return schemaRepository.findById(modelSchemaId);
@@ -0,0 +1,224 @@
+package com.devs.api.service.impl;
+
+import com.devs.api.cache.CompressedBitmap;
+import com.devs.api.cache.LruCache;
+import com.devs.api.entity.Model;
+import com.devs.api.entity.Tag;
+import com.devs.api.repository.ModelRepository;
+import com.devs.api.repository.Pages;
+import com.devs.api.repository.Pages.Slice;
+import com.devs.api.repository.TagIndexRepository;
+import com.devs.api.service.TagIndexService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Answers tag filters from per-user bitmaps of model ids, one per tag plus one of all live models, held in memory for
+ * the most recently active users. An index is built from the database on first use and then kept current as models
+ * are saved; each change publishes a new immutable index, so filters never wait on writers.
+ * <p>
+ * Bitmaps are keyed by tag name, not id, on purpose: clients filter by name, as they do in the model listing, so a
+ * system tag and a user tag of the same name select the same models and share one facet.
+ */
+@Service
+public class TagIndexServiceImpl implements TagIndexService {
+    private final TagIndexRepository tagIndexRepository;
+    private final ModelRepository modelRepository;
+    private final LruCache<Long, UserTagIndex> indexes;
+    private final int maxPageSize;
+
+    // Raised by every change, so an index loaded while a change committed is used once but not cached.
+    private final AtomicLong changes = new AtomicLong();
+
+    public TagIndexServiceImpl(TagIndexRepository tagIndexRepository, ModelRepository modelRepository,
+                               @Value("${application.tags.index.max-users}") int maxUsers,
+                               @Value("${application.tags.index.max-page-size}") int maxPageSize) {
+        this.tagIndexRepository = tagIndexRepository;
+        this.modelRepository = modelRepository;
+        this.indexes = new LruCache<>(maxUsers);
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public TagFilterPage filter(Long userId, List<String> all, List<String> any, List<String> none, Long beforeId,
+                                int size) {
+        UserTagIndex index = index(userId);
+
+        CompressedBitmap matches = index.live();
+        for (String tag : all) {
+            matches = matches.and(index.tagged(tag));
+        }
+        if (!any.isEmpty()) {
+            CompressedBitmap anyTagged = CompressedBitmap.empty();
+            for (String tag : any) {
+                anyTagged = anyTagged.or(index.tagged(tag));
+            }
+            matches = matches.and(anyTagged);
+        }
+        for (String tag : none) {
+            matches = matches.andNot(index.tagged(tag));
+        }
+
+        Map<String, Integer> facets = new TreeMap<>();
+        for (Map.Entry<String, CompressedBitmap> tag : index.tags().entrySet()) {
+            int count = tag.getValue().andCardinality(matches);
+            if (count > 0) {
+                facets.put(tag.getKey(), count);
+            }
+        }
+
+        int pageSize = Pages.clamp(size, maxPageSize);
+        int bound = beforeId == null || beforeId > Integer.MAX_VALUE ? Integer.MAX_VALUE : beforeId.intValue();
+        Slice<Long> ids = Pages.slice(Arrays.stream(matches.descendingBelow(bound, Pages.fetchLimit(pageSize)))
+                .mapToObj(id -> (long) id).toList(), pageSize);
+
+        return new TagFilterPage(modelRepository.findSummariesInOrder(ids.items()), ids.last(),
+                matches.cardinality(), facets);
+    }
+
+    @Override
+    public void modelChanged(Model model) {
+        boolean live = model.getDeleteDate() == null;
+        Set<String> tags = live ? model.getTags().stream().map(Tag::getName).collect(Collectors.toSet()) : Set.of();
+        afterCommit(model.getUser().getId(), model.getId(), live, tags);
+    }
+
+    @Override
+    public void modelDeleted(Model model) {
+        afterCommit(model.getUser().getId(), model.getId(), false, Set.of());
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        Runnable invalidate = () -> {
+            synchronized (this) {
+                changes.incrementAndGet();
+                if (userId == null) {
+                    indexes.clear();
+                } else {
+                    indexes.remove(userId);
+                }
+            }
+        };
+        runAfterCommit(invalidate);
+    }
+
+    // The change is captured now, because the entity may be modified again before the transaction commits. Bitmaps
+    // hold int ids; a larger id drops the user's index rather than failing a request whose write has committed.
+    private void afterCommit(Long userId, Long modelId, boolean live, Set<String> tags) {
+        if (modelId > Integer.MAX_VALUE) {
+            invalidate(userId);
+            return;
+        }
+        int id = modelId.intValue();
+        runAfterCommit(() -> {
+            synchronized (this) {
+                changes.incrementAndGet();
+                UserTagIndex index = indexes.get(userId);
+                if (index != null) {
+                    indexes.put(userId, index.with(id, live, tags));
+                }
+            }
+        });
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private UserTagIndex index(Long userId) {
+        UserTagIndex index = indexes.get(userId);
+        if (index != null) {
+            return index;
+        }
+
+        long changesBefore = changes.get();
+        index = load(userId);
+        synchronized (this) {
+            if (changes.get() == changesBefore) {
+                indexes.put(userId, index);
+            }
+        }
+        return index;
+    }
+
+    private UserTagIndex load(Long userId) {
+        Map<String, IdBuffer> tagged = new HashMap<>();
+        IdBuffer live = new IdBuffer();
+        tagIndexRepository.forEachLiveModelTag(userId, (modelId, tag) -> {
+            if (modelId > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Model id " + modelId + " is beyond the range of the tag index");
+            }
+            int id = modelId.intValue();
+            live.add(id);
+            if (tag != null) {
+                tagged.computeIfAbsent(tag, name -> new IdBuffer()).add(id);
+            }
+        });
+
+        Map<String, CompressedBitmap> tags = new HashMap<>();
+        tagged.forEach((tag, ids) -> tags.put(tag, ids.toBitmap()));
+        return new UserTagIndex(live.toBitmap(), tags);
+    }
+
+    private record UserTagIndex(CompressedBitmap live, Map<String, CompressedBitmap> tags) {
+        CompressedBitmap tagged(String tag) {
+            return tags.getOrDefault(tag, CompressedBitmap.empty());
+        }
+
+        UserTagIndex with(int modelId, boolean isLive, Collection<String> modelTags) {
+            Map<String, CompressedBitmap> updated = new HashMap<>(tags);
+            for (Map.Entry<String, CompressedBitmap> tag : tags.entrySet()) {
+                if (!modelTags.contains(tag.getKey()) && tag.getValue().contains(modelId)) {
+                    CompressedBitmap remaining = tag.getValue().without(modelId);
+                    if (remaining.isEmpty()) {
+                        updated.remove(tag.getKey());
+                    } else {
+                        updated.put(tag.getKey(), remaining);
+                    }
+                }
+            }
+            for (String tag : modelTags) {
+                updated.put(tag, updated.getOrDefault(tag, CompressedBitmap.empty()).with(modelId));
+            }
+            return new UserTagIndex(isLive ? live.with(modelId) : live.without(modelId), updated);
+        }
+    }
+
+    private static final class IdBuffer {
+        private int[] ids = new int[16];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        CompressedBitmap toBitmap() {
+            return CompressedBitmap.of(Arrays.copyOf(ids, size));
+        }
+    }
+}
@@ -2,9 +2,12 @@ package com.devs.api.service.impl;
 
 import com.devs.api.entity.Tag;
 import com.devs.api.repository.TagRepository;
+import com.devs.api.service.ModelSearchService;
+import com.devs.api.service.TagIndexService;
 import com.devs.api.service.TagService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,9 +17,16 @@ public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
 
+    private final ModelSearchService modelSearchService;
+
+    private final TagIndexService tagIndexService;
+
     @Autowired
-    public TagServiceImpl(TagRepository tagRepository) {
+    public TagServiceImpl(TagRepository tagRepository, ModelSearchService modelSearchService,
+                          TagIndexService tagIndexService) {
         this.tagRepository = tagRepository;
+        this.modelSearchService = modelSearchService;
+        this.tagIndexService = tagIndexService;
     }
 
     @Override
@@ -44,13 +54,19 @@ public class TagServiceImpl implements TagService {
         tagRepository.save(tag);
     }
 
+    // The tag may have been renamed, and tag names are part of the search documents and tag index of its models.
     @Override
+    @Transactional
     public void updateTag(Tag tag) {
-        tagRepository.save(tag);
+        tagRepository.saveAndFlush(tag);
+        modelSearchService.refreshTagged(tag.getId());
+        tagIndexService.invalidate(tag.getUserId());
     }
 
     @Override
+    @Transactional
     public void deleteTag(Long id) {
+        tagRepository.findById(id).ifPresent(tag -> tagIndexService.invalidate(tag.getUserId()));
         tagRepository.deleteById(id);
     }
 
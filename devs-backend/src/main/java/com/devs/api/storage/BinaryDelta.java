@@ -0,0 +1,162 @@
+package com.devs.api.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Copy/insert delta encoding between two versions of a file. A delta is the target length followed by a sequence
+ * of instructions that either copy a range of the base or insert literal bytes, all lengths and offsets written as
+ * unsigned varints. Matches are found through a hash index of fixed-size blocks of the base, so encoding is linear
+ * in the size of both inputs.
+ */
+public final class BinaryDelta {
+    private static final int BLOCK_SIZE = 16;
+    private static final int COPY = 0;
+    private static final int INSERT = 1;
+
+    private BinaryDelta() {
+    }
+
+    public static byte[] encode(byte[] base, byte[] target) {
+        ByteArrayOutputStream delta = new ByteArrayOutputStream(Math.max(64, target.length / 8));
+        writeVarint(delta, target.length);
+
+        BlockIndex index = new BlockIndex(base);
+        int insertStart = 0;
+        int position = 0;
+        while (position + BLOCK_SIZE <= target.length) {
+            int candidate = index.find(target, position);
+            if (candidate < 0 || !regionMatches(base, candidate, target, position, BLOCK_SIZE)) {
+                position++;
+                continue;
+            }
+
+            int matchStart = position;
+            int baseStart = candidate;
+            while (matchStart > insertStart && baseStart > 0 && base[baseStart - 1] == target[matchStart - 1]) {
+                matchStart--;
+                baseStart--;
+            }
+            int matchEnd = position + BLOCK_SIZE;
+            int baseEnd = candidate + BLOCK_SIZE;
+            while (matchEnd < target.length && baseEnd < base.length && base[baseEnd] == target[matchEnd]) {
+                matchEnd++;
+                baseEnd++;
+            }
+
+            writeInsert(delta, target, insertStart, matchStart);
+            delta.write(COPY);
+            writeVarint(delta, baseStart);
+            writeVarint(delta, matchEnd - matchStart);
+            insertStart = matchEnd;
+            position = matchEnd;
+        }
+        writeInsert(delta, target, insertStart, target.length);
+        return delta.toByteArray();
+    }
+
+    public static byte[] apply(byte[] base, byte[] delta) {
+        int[] cursor = {0};
+        byte[] target = new byte[readVarint(delta, cursor)];
+        int written = 0;
+        while (cursor[0] < delta.length) {
+            int op = delta[cursor[0]++];
+            if (op == COPY) {
+                int offset = readVarint(delta, cursor);
+                int length = readVarint(delta, cursor);
+                System.arraycopy(base, offset, target, written, length);
+                written += length;
+            } else if (op == INSERT) {
+                int length = readVarint(delta, cursor);
+                System.arraycopy(delta, cursor[0], target, written, length);
+                cursor[0] += length;
+                written += length;
+            } else {
+                throw new IllegalArgumentException("Corrupt delta: unknown instruction " + op);
+            }
+        }
+        if (written != target.length) {
+            throw new IllegalArgumentException("Corrupt delta: expected " + target.length + " bytes, got " + written);
+        }
+        return target;
+    }
+
+    private static void writeInsert(ByteArrayOutputStream delta, byte[] target, int from, int to) {
+        if (to > from) {
+            delta.write(INSERT);
+            writeVarint(delta, to - from);
+            delta.write(target, from, to - from);
+        }
+    }
+
+    private static boolean regionMatches(byte[] a, int aFrom, byte[] b, int bFrom, int length) {
+        return Arrays.equals(a, aFrom, aFrom + length, b, bFrom, bFrom + length);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] in, int[] cursor) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in[cursor[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static int hash(byte[] data, int from) {
+        int h = 1;
+        for (int i = from; i < from + BLOCK_SIZE; i++) {
+            h = 31 * h + data[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    // Open-addressed table from block hash to the first base offset with that hash; offsets are stored plus one so
+    // zero marks an empty slot.
+    private static final class BlockIndex {
+        private final int[] hashes;
+        private final int[] offsets;
+        private final int mask;
+
+        BlockIndex(byte[] base) {
+            int blocks = base.length / BLOCK_SIZE;
+            int capacity = Integer.highestOneBit(Math.max(blocks, 1) * 2 - 1) << 1;
+            hashes = new int[capacity];
+            offsets = new int[capacity];
+            mask = capacity - 1;
+            for (int offset = 0; offset + BLOCK_SIZE <= base.length; offset += BLOCK_SIZE) {
+                int h = hash(base, offset);
+                int slot = h & mask;
+                while (offsets[slot] != 0 && hashes[slot] != h) {
+                    slot = (slot + 1) & mask;
+                }
+                if (offsets[slot] == 0) {
+                    hashes[slot] = h;
+                    offsets[slot] = offset + 1;
+                }
+            }
+        }
+
+        int find(byte[] target, int from) {
+            int h = hash(target, from);
+            int slot = h & mask;
+            while (offsets[slot] != 0) {
+                if (hashes[slot] == h) {
+                    return offsets[slot] - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+    }
+}
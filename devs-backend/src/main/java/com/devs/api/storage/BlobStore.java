@@ -0,0 +1,33 @@
+package com.devs.api.storage;
+
+import java.io.InputStream;
+
+/**
+ * Keeps the encoded payloads of blobs, while their metadata stays in the blobs table. A payload is named by the hash
+ * of its blob and, for a delta, the hash of the blob it is a delta against, so turning a full payload into a delta
+ * writes a new payload instead of overwriting one that a concurrent reader may still need.
+ */
+public interface BlobStore {
+    /**
+     * Whether payloads live in the payload column of their blob's row. Such payloads are written by the statement
+     * that inserts or rebases the row instead of through {@link #write}, so each costs a single row version.
+     */
+    default boolean inRow() {
+        return false;
+    }
+
+    void write(String hash, String deltaBaseHash, byte[] payload);
+
+    byte[] read(String hash, String deltaBaseHash);
+
+    /**
+     * Opens the payload of a full snapshot, decoded as it is read.
+     */
+    InputStream open(String hash);
+
+    /**
+     * Removes a payload no blob uses any more. Removal waits until the current transaction commits, so a rollback
+     * leaves the payload its metadata still points at.
+     */
+    void delete(String hash, String deltaBaseHash);
+}
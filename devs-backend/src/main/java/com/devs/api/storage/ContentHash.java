@@ -0,0 +1,32 @@
+package com.devs.api.storage;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class ContentHash {
+    public static final String ALGORITHM = "SHA-256";
+
+    private ContentHash() {
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+
+    public static byte[] sha256(byte[] content) {
+        return newDigest().digest(content);
+    }
+
+    public static String sha256Hex(byte[] content) {
+        return toHex(sha256(content));
+    }
+
+    public static String toHex(byte[] digest) {
+        return HexFormat.of().formatHex(digest);
+    }
+}
@@ -0,0 +1,58 @@
+package com.devs.api.storage;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * Keeps payloads in the payload column of the blobs table. They are normally written by the statement that inserts or
+ * rebases their row; {@link #write} fills in the column of an existing row, and only while that row still has the
+ * delta base the payload was encoded against. A payload is deleted together with its row.
+ */
+@Repository
+public class DatabaseBlobStore implements BlobStore {
+    private static final String WRITE =
+            "UPDATE blobs SET payload = ? WHERE hash = ? AND delta_base_hash IS NOT DISTINCT FROM ?";
+
+    private static final String READ =
+            "SELECT payload FROM blobs WHERE hash = ? AND delta_base_hash IS NOT DISTINCT FROM ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseBlobStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean inRow() {
+        return true;
+    }
+
+    @Override
+    public void write(String hash, String deltaBaseHash, byte[] payload) {
+        if (jdbcTemplate.update(WRITE, payload, hash, deltaBaseHash) != 1) {
+            throw new IllegalStateException("Blob " + hash + " is not stored with delta base " + deltaBaseHash);
+        }
+    }
+
+    @Override
+    public byte[] read(String hash, String deltaBaseHash) {
+        return jdbcTemplate.queryForList(READ, byte[].class, hash, deltaBaseHash).stream()
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Payload of blob " + hash
+                        + " is not stored in the database"));
+    }
+
+    @Override
+    public InputStream open(String hash) {
+        return PayloadCodec.decodeStream(read(hash, null));
+    }
+
+    @Override
+    public void delete(String hash, String deltaBaseHash) {
+        // The payload column goes with its row.
+    }
+}
@@ -0,0 +1,122 @@
+package com.devs.api.storage;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Keeps payloads as files under a root directory, fanned out by the first characters of the hash. A payload is
+ * written to a temporary file in the target directory, forced to disk and renamed over the target, so readers only
+ * ever see complete files. Raw payloads are opened as file streams whose skips are seeks, which lets byte ranges be
+ * served straight from the file channel.
+ */
+public class FileSystemBlobStore implements BlobStore {
+    private final Path root;
+
+    public FileSystemBlobStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public void write(String hash, String deltaBaseHash, byte[] payload) {
+        Path target = path(hash, deltaBaseHash);
+        Path temp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(payload);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new UncheckedIOException("Failed to write payload of blob " + hash, e);
+        }
+    }
+
+    @Override
+    public byte[] read(String hash, String deltaBaseHash) {
+        try {
+            return Files.readAllBytes(path(hash, deltaBaseHash));
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException("Payload of blob " + hash + " is not stored in " + root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read payload of blob " + hash, e);
+        }
+    }
+
+    @Override
+    public InputStream open(String hash) {
+        Path path = path(hash, null);
+        FileInputStream in = null;
+        try {
+            in = new FileInputStream(path.toFile());
+            return PayloadCodec.decodeStream(in);
+        } catch (IOException e) {
+            closeQuietly(in);
+            if (!Files.exists(path)) {
+                throw new IllegalStateException("Payload of blob " + hash + " is not stored in " + root);
+            }
+            throw new UncheckedIOException("Failed to open payload of blob " + hash, e);
+        } catch (RuntimeException e) {
+            closeQuietly(in);
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(String hash, String deltaBaseHash) {
+        Path path = path(hash, deltaBaseHash);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteQuietly(path);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteQuietly(path);
+            }
+        });
+    }
+
+    private Path path(String hash, String deltaBaseHash) {
+        String name = deltaBaseHash == null ? hash : hash + "." + deltaBaseHash;
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(name);
+    }
+
+    // A payload left behind is only wasted space: it is named by content, and nothing points at it.
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        if (in == null) {
+            return;
+        }
+        try {
+            in.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
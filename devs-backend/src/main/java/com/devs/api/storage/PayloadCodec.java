@@ -0,0 +1,144 @@
+package com.devs.api.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes blob payloads as they are written to the blob store. Every payload starts with a format byte: {@link #RAW}
+ * is followed by the bytes as they are, {@link #DEFLATE} by the decoded length as a 4-byte integer and a zlib
+ * stream. The format is recorded per payload, so changing the configured compression never affects reads.
+ */
+@Component
+public class PayloadCodec {
+    public static final byte RAW = 0;
+    public static final byte DEFLATE = 1;
+
+    private static final int DEFLATE_HEADER_LENGTH = 1 + Integer.BYTES;
+
+    private final boolean compress;
+    private final int level;
+
+    public PayloadCodec(@Value("${application.blobs.compression}") String compression,
+                        @Value("${application.blobs.compression-level}") int level) {
+        this.compress = switch (compression.toLowerCase(Locale.ROOT)) {
+            case "deflate" -> true;
+            case "none" -> false;
+            default -> throw new IllegalArgumentException("Unsupported blob compression: " + compression);
+        };
+        this.level = level;
+    }
+
+    public byte[] encode(byte[] content) {
+        if (compress) {
+            byte[] compressed = deflate(content, level);
+            if (compressed.length < content.length + 1) {
+                return compressed;
+            }
+        }
+        byte[] payload = new byte[content.length + 1];
+        payload[0] = RAW;
+        System.arraycopy(content, 0, payload, 1, content.length);
+        return payload;
+    }
+
+    public static byte[] decode(byte[] payload) {
+        if (payload.length == 0) {
+            throw new IllegalArgumentException("Blob payload has no format header");
+        }
+        return switch (payload[0]) {
+            case RAW -> Arrays.copyOfRange(payload, 1, payload.length);
+            case DEFLATE -> inflate(payload);
+            default -> throw new IllegalArgumentException("Unknown blob payload format " + payload[0]);
+        };
+    }
+
+    /**
+     * Decodes a payload as it is read, so compressed content is never held in memory in full.
+     */
+    public static InputStream decodeStream(byte[] payload) {
+        if (payload.length == 0) {
+            throw new IllegalArgumentException("Blob payload has no format header");
+        }
+        return switch (payload[0]) {
+            case RAW -> new ByteArrayInputStream(payload, 1, payload.length - 1);
+            case DEFLATE -> new InflaterInputStream(new ByteArrayInputStream(payload, DEFLATE_HEADER_LENGTH,
+                    payload.length - DEFLATE_HEADER_LENGTH));
+            default -> throw new IllegalArgumentException("Unknown blob payload format " + payload[0]);
+        };
+    }
+
+    /**
+     * Decodes a payload read from a stream, such as a file. Raw content is returned as the stream itself, positioned
+     * after the format byte.
+     */
+    public static InputStream decodeStream(InputStream payload) throws IOException {
+        int format = payload.read();
+        return switch (format) {
+            case RAW -> payload;
+            case DEFLATE -> {
+                payload.skipNBytes(Integer.BYTES);
+                yield new InflaterInputStream(new BufferedInputStream(payload));
+            }
+            case -1 -> throw new IllegalArgumentException("Blob payload has no format header");
+            default -> throw new IllegalArgumentException("Unknown blob payload format " + format);
+        };
+    }
+
+    public static byte[] deflate(byte[] content, int level) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+            out.write(DEFLATE);
+            out.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(content.length).array());
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] payload) {
+        int length = ByteBuffer.wrap(payload, 1, Integer.BYTES).getInt();
+        byte[] content = new byte[length];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(payload, DEFLATE_HEADER_LENGTH, payload.length - DEFLATE_HEADER_LENGTH);
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                int read = inflater.inflate(content, offset, length - offset);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += read;
+            }
+            if (offset != length) {
+                throw new IllegalArgumentException("Corrupt blob payload: expected " + length + " bytes, got "
+                        + offset);
+            }
+            return content;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt blob payload: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.devs.api.storage;
+
+import com.devs.api.entity.StoredSource;
+import com.devs.api.service.BlobService;
+import org.springframework.context.annotation.Lazy;
+
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+import javax.persistence.PrePersist;
+import javax.persistence.PreRemove;
+import javax.persistence.PreUpdate;
+import java.util.Objects;
+
+/**
+ * Keeps {@link StoredSource} rows and the blob store in step: the source file is read from its blob the first time a
+ * loaded row is asked for it, and references are added and released as rows start or stop pointing at a hash.
+ * Pointing a row at content that is already stored, such as a history row or a restored version, only adds a
+ * reference.
+ */
+public class SourceFileListener {
+    private final BlobService blobService;
+
+    public SourceFileListener(@Lazy BlobService blobService) {
+        this.blobService = blobService;
+    }
+
+    @PostLoad
+    public void load(StoredSource entity) {
+        entity.loadSourceFileWith(blobService::load);
+        entity.setStoredContentHash(entity.getContentHash());
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void store(StoredSource entity) {
+        String hash = entity.getContentHash();
+        String storedHash = entity.getStoredContentHash();
+        if (Objects.equals(hash, storedHash)) {
+            return;
+        }
+        if (hash != null) {
+            blobService.store(hash, entity.getSourceFile(), storedHash);
+        }
+        if (storedHash != null) {
+            blobService.release(storedHash);
+        }
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void stored(StoredSource entity) {
+        entity.setStoredContentHash(entity.getContentHash());
+    }
+
+    @PreRemove
+    public void remove(StoredSource entity) {
+        if (entity.getStoredContentHash() != null) {
+            blobService.release(entity.getStoredContentHash());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.devs.api.validation;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks DEVS model semantics that the XSD cannot express: duplicate component names, connections to undeclared
+ * components and self-loops. It receives the SAX events of the validation parse, so the checks add no second
+ * pass over the document. Documents whose root is not {@code devsModel} are not checked.
+ */
+public class DevsSemanticHandler extends DefaultHandler {
+    private static final String MODEL = "devsModel";
+    private static final String COMPONENT = "component";
+    private static final String CONNECTIONS = "connections";
+    private static final String CONNECTION = "connection";
+
+    private final ErrorHandler errorHandler;
+    private final Set<String> components = new HashSet<>();
+    // Connections seen before the component list is complete, checked again once the model element ends.
+    private final List<PendingConnection> pendingConnections = new ArrayList<>();
+    private final StringBuilder componentName = new StringBuilder();
+
+    private Locator locator;
+    private int depth;
+    private boolean devsModel;
+    private boolean inComponent;
+    private boolean componentsComplete;
+
+    public DevsSemanticHandler(ErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    public void setDocumentLocator(Locator locator) {
+        this.locator = locator;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes)
+            throws SAXException {
+        depth++;
+        if (depth == 1) {
+            devsModel = MODEL.equals(localName);
+            return;
+        }
+        if (!devsModel) {
+            return;
+        }
+
+        if (depth == 2 && COMPONENT.equals(localName)) {
+            inComponent = true;
+            componentName.setLength(0);
+        } else if (depth == 2 && CONNECTIONS.equals(localName)) {
+            componentsComplete = true;
+        } else if (depth == 3 && CONNECTION.equals(localName)) {
+            checkConnection(attributes.getValue("", "source"), attributes.getValue("", "target"));
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (inComponent) {
+            componentName.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        if (devsModel && inComponent && depth == 2) {
+            inComponent = false;
+            String name = componentName.toString().trim();
+            if (!components.add(name)) {
+                report("Component '" + name + "' is declared more than once.", currentLine(), currentColumn());
+            }
+        } else if (devsModel && depth == 1) {
+            for (PendingConnection pending : pendingConnections) {
+                if (!components.contains(pending.name())) {
+                    report(danglingMessage(pending.role(), pending.name()), pending.line(), pending.column());
+                }
+            }
+            pendingConnections.clear();
+        }
+        depth--;
+    }
+
+    private void checkConnection(String source, String target) throws SAXException {
+        if (source != null && source.equals(target)) {
+            report("Connection from component '" + source + "' to itself is not allowed.", currentLine(),
+                    currentColumn());
+        }
+        checkReference("source", source);
+        checkReference("target", target);
+    }
+
+    private void checkReference(String role, String name) throws SAXException {
+        if (name == null || components.contains(name)) {
+            return;
+        }
+        if (componentsComplete) {
+            report(danglingMessage(role, name), currentLine(), currentColumn());
+        } else {
+            pendingConnections.add(new PendingConnection(role, name, currentLine(), currentColumn()));
+        }
+    }
+
+    private String danglingMessage(String role, String name) {
+        return "Connection " + role + " '" + name + "' does not reference a declared component.";
+    }
+
+    private void report(String message, int line, int column) throws SAXException {
+        String publicId = locator != null ? locator.getPublicId() : null;
+        String systemId = locator != null ? locator.getSystemId() : null;
+        errorHandler.error(new SAXParseException(message, publicId, systemId, line, column));
+    }
+
+    private int currentLine() {
+        return locator != null ? locator.getLineNumber() : -1;
+    }
+
+    private int currentColumn() {
+        return locator != null ? locator.getColumnNumber() : -1;
+    }
+
+    private record PendingConnection(String role, String name, int line, int column) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.devs.api.validation;
+
+import com.devs.api.entity.Schema;
+import com.devs.api.storage.ContentHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Set;
+
+@Service
+public class ModelValidator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModelValidator.class);
+
+    private final SchemaCache schemaCache;
+    private final ValidationResultCache resultCache;
+
+    public ModelValidator(SchemaCache schemaCache, ValidationResultCache resultCache) {
+        this.schemaCache = schemaCache;
+        this.resultCache = resultCache;
+    }
+
+    public ValidationResult validate(InputStreamSource source, Schema schema, int maxErrors) throws IOException {
+        String contentHash = hash(source);
+
+        ValidationResult cached = resultCache.get(contentHash, schema, maxErrors);
+        if (cached != null) {
+            return cached;
+        }
+
+        javax.xml.validation.Schema compiledSchema;
+        try {
+            compiledSchema = schemaCache.getCompiledSchema(schema);
+        } catch (SAXException e) {
+            LOGGER.error("Error compiling schema " + schema.getId() + ": " + e.getMessage());
+            ValidationResult result = ValidationResult.failure("Schema could not be compiled: " + e.getMessage());
+            result.setContentHash(contentHash);
+            return result;
+        }
+
+        ValidationResult result;
+        try (InputStream xmlStream = source.getInputStream()) {
+            result = XMLValidation.validateXMLSchema(compiledSchema, xmlStream, maxErrors);
+        }
+        result.setContentHash(contentHash);
+        resultCache.put(contentHash, schema, maxErrors, result);
+        return result;
+    }
+
+    /**
+     * Drops cached state for the schema and for the schemas that import or include it, and returns the ids of all
+     * affected schemas.
+     */
+    public Set<Long> evict(Long schemaId) {
+        Set<Long> evicted = schemaCache.evict(schemaId);
+        for (Long evictedSchemaId : evicted) {
+            resultCache.evict(evictedSchemaId);
+        }
+        return evicted;
+    }
+
+    /**
+     * Drops cached state that a new schema called {@code name} makes stale, because name references resolved to an
+     * older schema, and returns the ids of the affected schemas.
+     */
+    public Set<Long> evictName(String name) {
+        Set<Long> evicted = schemaCache.evictName(name);
+        for (Long evictedSchemaId : evicted) {
+            resultCache.evict(evictedSchemaId);
+        }
+        return evicted;
+    }
+
+    private String hash(InputStreamSource source) throws IOException {
+        MessageDigest digest = ContentHash.newDigest();
+        try (InputStream in = new DigestInputStream(source.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return ContentHash.toHex(digest.digest());
+    }
+}
@@ -0,0 +1,99 @@
+package com.devs.api.validation;
+
+import com.devs.api.cache.LruCache;
+import com.devs.api.dto.SchemaCacheStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.xml.sax.SAXException;
+
+import javax.xml.validation.Schema;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Component
+public class SchemaCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaCache.class);
+
+    private final SchemaResourceResolver resourceResolver;
+    private final LruCache<Key, CompiledSchema> compiledSchemas;
+    private final AtomicLong compilations = new AtomicLong();
+    private final AtomicLong compileNanos = new AtomicLong();
+
+    public SchemaCache(SchemaResourceResolver resourceResolver,
+                       @Value("${application.validation.schema-cache.max-size}") int maxSize) {
+        this.resourceResolver = resourceResolver;
+        this.compiledSchemas = new LruCache<>(maxSize);
+    }
+
+    public Schema getCompiledSchema(com.devs.api.entity.Schema schema) throws SAXException {
+        Key key = new Key(schema.getId(), schema.getVersion());
+        CompiledSchema cached = compiledSchemas.get(key);
+        if (cached != null) {
+            return cached.schema();
+        }
+
+        Set<Long> dependencies = new HashSet<>();
+        long start = System.nanoTime();
+        Schema compiled = XMLValidation.compileSchema(schema.getSourceFile(),
+                resourceResolver.forCompilation(dependencies));
+        long elapsed = System.nanoTime() - start;
+        compilations.incrementAndGet();
+        compileNanos.addAndGet(elapsed);
+        LOGGER.info("Compiled schema {} version {} in {} ms", key.schemaId(), key.version(), elapsed / 1_000_000);
+
+        compiledSchemas.put(key, new CompiledSchema(compiled, dependencies));
+        return compiled;
+    }
+
+    /**
+     * Evicts the schema and every compiled schema that imports or includes it, returning the ids of the schemas
+     * whose compiled form was dropped.
+     */
+    public Set<Long> evict(Long schemaId) {
+        resourceResolver.evict(schemaId);
+        Set<Long> evicted = compiledSchemas.removeIf((key, cached) ->
+                        key.schemaId().equals(schemaId) || cached.dependencies().contains(schemaId))
+                .stream()
+                .map(Key::schemaId)
+                .collect(Collectors.toCollection(HashSet::new));
+        evicted.add(schemaId);
+        return evicted;
+    }
+
+    /**
+     * Evicts the references a new schema called {@code name} takes over and every compiled schema built against
+     * them, returning the ids of the schemas whose compiled form was dropped.
+     */
+    public Set<Long> evictName(String name) {
+        Set<Long> superseded = resourceResolver.evictName(name);
+        if (superseded.isEmpty()) {
+            return new HashSet<>();
+        }
+        return compiledSchemas.removeIf((key, cached) -> cached.dependencies().stream().anyMatch(superseded::contains))
+                .stream()
+                .map(Key::schemaId)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    public SchemaCacheStatsDTO getStats() {
+        SchemaCacheStatsDTO stats = new SchemaCacheStatsDTO();
+        stats.setSize(compiledSchemas.size());
+        stats.setMaxSize(compiledSchemas.getMaxSize());
+        stats.setHits(compiledSchemas.getHits());
+        stats.setMisses(compiledSchemas.getMisses());
+        stats.setEvictions(compiledSchemas.getEvictions());
+        stats.setCompilations(compilations.get());
+        stats.setTotalCompileMillis(compileNanos.get() / 1_000_000);
+        return stats;
+    }
+
+    private record Key(Long schemaId, Integer version) {
+    }
+
+    private record CompiledSchema(Schema schema, Set<Long> dependencies) {
+    }
+}
@@ -0,0 +1,218 @@
+package com.devs.api.validation;
+
+import com.devs.api.cache.LruCache;
+import com.devs.api.entity.Schema;
+import com.devs.api.repository.SchemaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.ls.LSInput;
+import org.w3c.dom.ls.LSResourceResolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Resolves {@code xs:import}, {@code xs:include} and {@code xs:redefine} references against the schemas table
+ * instead of the network. A schema location resolves to a stored schema either as {@code schema:<id>} or by its
+ * last path segment matching a schema name, with or without the {@code .xsd} extension.
+ */
+@Component
+public class SchemaResourceResolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaResourceResolver.class);
+
+    private static final String SCHEMA_ID_PREFIX = "schema:";
+    private static final String XSD_EXTENSION = ".xsd";
+
+    private final SchemaRepository schemaRepository;
+    private final LruCache<String, ResolvedSchema> resolvedSchemas;
+
+    public SchemaResourceResolver(SchemaRepository schemaRepository,
+                                  @Value("${application.validation.resolver-cache.max-size}") int maxSize) {
+        this.schemaRepository = schemaRepository;
+        this.resolvedSchemas = new LruCache<>(maxSize);
+    }
+
+    /**
+     * Returns a resolver for one schema compilation. The ids of every stored schema it resolves are added to
+     * {@code dependencies}, so the compiled schema can be evicted when one of them changes.
+     */
+    public LSResourceResolver forCompilation(Set<Long> dependencies) {
+        return (type, namespaceURI, publicId, systemId, baseURI) -> {
+            ResolvedSchema resolved = resolve(systemId);
+            if (resolved == null) {
+                // The schema factory denies external access, so the reference fails to load instead of being fetched.
+                LOGGER.warn("Schema reference {} could not be resolved from stored schemas", systemId);
+                return null;
+            }
+            dependencies.add(resolved.schemaId());
+            return new SchemaInput(publicId, systemId, baseURI, resolved.content());
+        };
+    }
+
+    public void evict(Long schemaId) {
+        resolvedSchemas.removeIf((location, resolved) -> resolved.schemaId().equals(schemaId));
+    }
+
+    /**
+     * Drops the locations that resolved by name to a schema called {@code name}, which a newer schema with that name
+     * now takes over, and returns the ids of the schemas they resolved to.
+     */
+    public Set<Long> evictName(String name) {
+        Set<Long> superseded = new HashSet<>();
+        resolvedSchemas.removeIf((location, resolved) -> {
+            if (location.startsWith(SCHEMA_ID_PREFIX) || !referencedNames(location).contains(name)) {
+                return false;
+            }
+            superseded.add(resolved.schemaId());
+            return true;
+        });
+        return superseded;
+    }
+
+    private ResolvedSchema resolve(String systemId) {
+        if (systemId == null) {
+            return null;
+        }
+
+        ResolvedSchema resolved = resolvedSchemas.get(systemId);
+        if (resolved != null) {
+            return resolved;
+        }
+
+        Optional<Schema> schema = findReferencedSchema(systemId);
+        if (schema.isEmpty() || schema.get().getSourceFile() == null) {
+            return null;
+        }
+
+        resolved = new ResolvedSchema(schema.get().getId(), schema.get().getSourceFile());
+        resolvedSchemas.put(systemId, resolved);
+        return resolved;
+    }
+
+    private Optional<Schema> findReferencedSchema(String systemId) {
+        if (systemId.startsWith(SCHEMA_ID_PREFIX)) {
+            try {
+                return schemaRepository.findById(Long.valueOf(systemId.substring(SCHEMA_ID_PREFIX.length())))
+                        .filter(schema -> schema.getDeleteDate() == null);
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+
+        for (String name : referencedNames(systemId)) {
+            Optional<Schema> schema = schemaRepository.findFirstByNameAndDeleteDateIsNullOrderByIdDesc(name);
+            if (schema.isPresent()) {
+                return schema;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // The schema names a location can resolve to, in the order they are tried.
+    private static List<String> referencedNames(String systemId) {
+        String name = systemId.substring(Math.max(systemId.lastIndexOf('/'), systemId.lastIndexOf('\\')) + 1);
+        if (name.toLowerCase().endsWith(XSD_EXTENSION)) {
+            return List.of(name, name.substring(0, name.length() - XSD_EXTENSION.length()));
+        }
+        return List.of(name);
+    }
+
+    private record ResolvedSchema(Long schemaId, byte[] content) {
+    }
+
+    private static class SchemaInput implements LSInput {
+        private String publicId;
+        private String systemId;
+        private String baseURI;
+        private final byte[] content;
+
+        SchemaInput(String publicId, String systemId, String baseURI, byte[] content) {
+            this.publicId = publicId;
+            this.systemId = systemId;
+            this.baseURI = baseURI;
+            this.content = content;
+        }
+
+        @Override
+        public InputStream getByteStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public void setByteStream(InputStream byteStream) {
+        }
+
+        @Override
+        public Reader getCharacterStream() {
+            return null;
+        }
+
+        @Override
+        public void setCharacterStream(Reader characterStream) {
+        }
+
+        @Override
+        public String getStringData() {
+            return null;
+        }
+
+        @Override
+        public void setStringData(String stringData) {
+        }
+
+        @Override
+        public String getSystemId() {
+            return systemId;
+        }
+
+        @Override
+        public void setSystemId(String systemId) {
+            this.systemId = systemId;
+        }
+
+        @Override
+        public String getPublicId() {
+            return publicId;
+        }
+
+        @Override
+        public void setPublicId(String publicId) {
+            this.publicId = publicId;
+        }
+
+        @Override
+        public String getBaseURI() {
+            return baseURI;
+        }
+
+        @Override
+        public void setBaseURI(String baseURI) {
+            this.baseURI = baseURI;
+        }
+
+        @Override
+        public String getEncoding() {
+            return null;
+        }
+
+        @Override
+        public void setEncoding(String encoding) {
+        }
+
+        @Override
+        public boolean getCertifiedText() {
+            return false;
+        }
+
+        @Override
+        public void setCertifiedText(boolean certifiedText) {
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.devs.api.validation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValidationError {
+    private String severity;
+    private int line;
+    private int column;
+    private String message;
+
+    @Override
+    public String toString() {
+        if (line < 0) {
+            return severity + ": " + message;
+        }
+        return severity + " at line " + line + ", column " + column + ": " + message;
+    }
+}
@@ -0,0 +1,56 @@
+package com.devs.api.validation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValidationResult {
+    private List<ValidationError> errors = new ArrayList<>();
+    private List<ValidationError> warnings = new ArrayList<>();
+    private boolean truncated;
+    private String contentHash;
+
+    public static ValidationResult failure(String message) {
+        ValidationResult result = new ValidationResult();
+        result.getErrors().add(new ValidationError("Error", -1, -1, message));
+        return result;
+    }
+
+    /**
+     * Returns a deep copy, so a result can be shared through a cache without callers seeing each other's changes.
+     */
+    public ValidationResult copy() {
+        return new ValidationResult(copyAll(errors), copyAll(warnings), truncated, contentHash);
+    }
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    public String getErrorMessage() {
+        String message = errors.stream()
+                .map(ValidationError::toString)
+                .collect(Collectors.joining(System.lineSeparator()));
+        if (truncated) {
+            message += System.lineSeparator() + "Validation stopped after " + errors.size() + " errors.";
+        }
+        return message;
+    }
+
+    private static List<ValidationError> copyAll(List<ValidationError> errors) {
+        List<ValidationError> copies = new ArrayList<>(errors.size());
+        for (ValidationError error : errors) {
+            copies.add(new ValidationError(error.getSeverity(), error.getLine(), error.getColumn(), error.getMessage()));
+        }
+        return copies;
+    }
+}
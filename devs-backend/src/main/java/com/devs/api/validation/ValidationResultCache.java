@@ -0,0 +1,37 @@
+package com.devs.api.validation;
+
+import com.devs.api.cache.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Results are validation reports that callers are free to change, so the cache keeps its own copy of each and hands
+ * out a fresh copy on every hit.
+ */
+@Component
+public class ValidationResultCache {
+    private final LruCache<Key, ValidationResult> results;
+
+    public ValidationResultCache(@Value("${application.validation.result-cache.max-size}") int maxSize,
+                                 @Value("${application.validation.result-cache.ttl-minutes}") long ttlMinutes) {
+        this.results = new LruCache<>(maxSize, Duration.ofMinutes(ttlMinutes));
+    }
+
+    public ValidationResult get(String contentHash, com.devs.api.entity.Schema schema, int maxErrors) {
+        ValidationResult result = results.get(new Key(contentHash, schema.getId(), schema.getVersion(), maxErrors));
+        return result != null ? result.copy() : null;
+    }
+
+    public void put(String contentHash, com.devs.api.entity.Schema schema, int maxErrors, ValidationResult result) {
+        results.put(new Key(contentHash, schema.getId(), schema.getVersion(), maxErrors), result.copy());
+    }
+
+    public void evict(Long schemaId) {
+        results.removeIf(key -> key.schemaId().equals(schemaId));
+    }
+
+    private record Key(String contentHash, Long schemaId, Integer schemaVersion, int maxErrors) {
+    }
+}
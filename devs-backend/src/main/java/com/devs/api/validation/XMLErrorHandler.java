@@ -4,46 +4,39 @@ import org.xml.sax.ErrorHandler;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-
 public class XMLErrorHandler implements ErrorHandler {
-    private final ByteArrayOutputStream validationErrors;
+    private final ValidationResult result;
+    private final int maxErrors;
 
-    public XMLErrorHandler(ByteArrayOutputStream validationErrors) {
-        this.validationErrors = validationErrors;
+    public XMLErrorHandler(ValidationResult result, int maxErrors) {
+        this.result = result;
+        this.maxErrors = maxErrors;
     }
 
     @Override
-    public void warning(SAXParseException exception) throws SAXException {
-        try {
-            handleError("Warning", exception);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    public void warning(SAXParseException exception) {
+        if (result.getWarnings().size() < maxErrors) {
+            result.getWarnings().add(toValidationError("Warning", exception));
         }
     }
 
     @Override
     public void error(SAXParseException exception) throws SAXException {
-        try {
-            handleError("Error", exception);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        result.getErrors().add(toValidationError("Error", exception));
+        if (result.getErrors().size() >= maxErrors) {
+            result.setTruncated(maxErrors > 1);
+            throw exception;
         }
     }
 
     @Override
     public void fatalError(SAXParseException exception) throws SAXException {
-        try {
-            handleError("Fatal Error", exception);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        result.getErrors().add(toValidationError("Fatal Error", exception));
+        throw exception;
     }
 
-    private void handleError(String level, SAXParseException exception) throws IOException {
-        String errorMessage = level + ": " + exception.getMessage();
-        validationErrors.write(errorMessage.getBytes());
-        validationErrors.write(System.lineSeparator().getBytes());
+    private ValidationError toValidationError(String severity, SAXParseException exception) {
+        return new ValidationError(severity, exception.getLineNumber(), exception.getColumnNumber(),
+                exception.getMessage());
     }
 }
@@ -2,35 +2,117 @@ package com.devs.api.validation;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.ls.LSResourceResolver;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
 import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
-import javax.xml.validation.Validator;
+import javax.xml.validation.ValidatorHandler;
 import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 
 public class XMLValidation {
     private static final Logger LOGGER = LoggerFactory.getLogger(XMLValidation.class);
-    private static String errorMessage;
 
-    public static boolean validateXMLSchema(byte[] xsdBytes, byte[] xmlBytes) {
+    public static final int FAIL_FAST = 1;
+
+    private static final String LOAD_EXTERNAL_DTD = "http://apache.org/xml/features/nonvalidating/load-external-dtd";
+
+    public static Schema compileSchema(byte[] xsdBytes) throws SAXException {
+        return compileSchema(xsdBytes, null);
+    }
+
+    /**
+     * Compiles the schema, resolving imports and includes through {@code resourceResolver} when one is given.
+     * External access is denied, so references the resolver does not supply fail instead of being fetched.
+     */
+    public static Schema compileSchema(byte[] xsdBytes, LSResourceResolver resourceResolver) throws SAXException {
+        SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        if (resourceResolver != null) {
+            factory.setResourceResolver(resourceResolver);
+        }
+        return factory.newSchema(new StreamSource(new ByteArrayInputStream(xsdBytes)));
+    }
+
+    public static ValidationResult validateXMLSchema(byte[] xsdBytes, byte[] xmlBytes, int maxErrors) {
+        Schema schema;
+        try {
+            schema = compileSchema(xsdBytes);
+        } catch (SAXException e) {
+            LOGGER.error("Error compiling schema: " + e.getMessage());
+            return ValidationResult.failure("Schema could not be compiled: " + e.getMessage());
+        }
+        return validateXMLSchema(schema, xmlBytes, maxErrors);
+    }
+
+    public static ValidationResult validateXMLSchema(Schema schema, byte[] xmlBytes, int maxErrors) {
         try {
-            SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            Schema schema = factory.newSchema(new StreamSource(new ByteArrayInputStream(xsdBytes)));
-            Validator validator = schema.newValidator();
-            validator.validate(new StreamSource(new ByteArrayInputStream(xmlBytes)));
-        } catch (IOException | SAXException e) {
-            errorMessage = e.getMessage();
-            LOGGER.error(errorMessage);
-            return false;
+            return validateXMLSchema(schema, new ByteArrayInputStream(xmlBytes), maxErrors);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return true;
     }
 
-    public static String getXMLErrorMessage() {
-        return errorMessage;
+    /**
+     * Validates the document as it is read from the stream, without buffering it. DEVS semantic checks run on the
+     * same parse (see {@link DevsSemanticHandler}). Up to {@code maxErrors} errors are collected before validation
+     * stops; pass {@link #FAIL_FAST} to stop at the first one. The stream is consumed to the end, so callers
+     * wrapping it in a digest see the whole content. It is not closed.
+     */
+    public static ValidationResult validateXMLSchema(Schema schema, InputStream xmlStream, int maxErrors)
+            throws IOException {
+        ValidationResult result = new ValidationResult();
+        InputStream unclosable = new FilterInputStream(xmlStream) {
+            @Override
+            public void close() {
+            }
+        };
+        try {
+            ValidatorHandler validatorHandler = schema.newValidatorHandler();
+            XMLErrorHandler errorHandler = new XMLErrorHandler(result, Math.max(maxErrors, 1));
+            validatorHandler.setErrorHandler(errorHandler);
+            validatorHandler.setContentHandler(new DevsSemanticHandler(errorHandler));
+
+            XMLReader reader = newReader();
+            reader.setErrorHandler(errorHandler);
+            reader.setContentHandler(validatorHandler);
+            reader.parse(new InputSource(unclosable));
+        } catch (SAXException e) {
+            if (result.isValid()) {
+                result.getErrors().add(new ValidationError("Error", -1, -1, e.getMessage()));
+            }
+            return result;
+        }
+        xmlStream.transferTo(OutputStream.nullOutputStream());
+        return result;
+    }
+
+    // Models are validated against the compiled schema only; DTDs and schema location hints they declare are
+    // never fetched.
+    private static XMLReader newReader() throws SAXException {
+        try {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature(LOAD_EXTERNAL_DTD, false);
+            XMLReader reader = factory.newSAXParser().getXMLReader();
+            reader.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            reader.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            return reader;
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("XML parser could not be configured", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package db.migration;
+
+import com.devs.api.storage.PayloadCodec;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.zip.Deflater;
+
+/**
+ * Rewrites every blob payload in the format read by {@link PayloadCodec}, compressed with Deflate. Payloads are
+ * processed in batches ordered by hash, so only one batch is held in memory.
+ */
+public class V10__Compress_blob_payloads extends BaseJavaMigration {
+    private static final int BATCH_SIZE = 100;
+
+    private static final String SELECT_BATCH =
+            "SELECT hash, payload FROM blobs WHERE hash > ? ORDER BY hash LIMIT " + BATCH_SIZE;
+
+    private static final String UPDATE_PAYLOAD = "UPDATE blobs SET payload = ? WHERE hash = ?";
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        // Payloads are compressed already, so PostgreSQL should not spend time trying to compress them again.
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE blobs ALTER COLUMN payload SET STORAGE EXTERNAL");
+        }
+
+        PayloadCodec codec = new PayloadCodec("deflate", Deflater.DEFAULT_COMPRESSION);
+        try (PreparedStatement select = connection.prepareStatement(SELECT_BATCH);
+             PreparedStatement update = connection.prepareStatement(UPDATE_PAYLOAD)) {
+            String afterHash = "";
+            int rows;
+            do {
+                rows = 0;
+                select.setString(1, afterHash);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        afterHash = rs.getString("hash");
+                        update.setBytes(1, codec.encode(rs.getBytes("payload")));
+                        update.setString(2, afterHash);
+                        update.addBatch();
+                        rows++;
+                    }
+                }
+                if (rows > 0) {
+                    update.executeBatch();
+                }
+            } while (rows == BATCH_SIZE);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package db.migration;
+
+import com.devs.api.storage.ContentHash;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Moves every inline source file into the blobs table and points the row at it by hash. Identical sources end up
+ * as one blob whose reference count is the number of rows using it.
+ */
+public class V9__Move_sources_to_blobs extends BaseJavaMigration {
+    private static final int FETCH_SIZE = 100;
+
+    // Not batched: the driver rewrites batched inserts into one multi-row statement, and ON CONFLICT cannot touch
+    // the same blob twice within a statement.
+    private static final String UPSERT_BLOB =
+            "INSERT INTO blobs (hash, payload, depth, size, ref_count, create_date) VALUES (?, ?, 0, ?, 1, now()) " +
+                    "ON CONFLICT (hash) DO UPDATE SET ref_count = blobs.ref_count + 1";
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        moveSources(connection, "models");
+        moveSources(connection, "schemas");
+        moveSources(connection, "models_history");
+        moveSources(connection, "schemas_history");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE models DROP COLUMN source_file");
+            statement.execute("ALTER TABLE schemas DROP COLUMN source_file");
+            statement.execute("ALTER TABLE models_history DROP COLUMN source_file");
+            statement.execute("ALTER TABLE schemas_history DROP COLUMN source_file");
+        }
+    }
+
+    private void moveSources(Connection connection, String table) throws SQLException {
+        try (PreparedStatement rows = connection.prepareStatement(
+                "SELECT id, source_file FROM " + table + " WHERE source_file IS NOT NULL ORDER BY id");
+             PreparedStatement upsertBlob = connection.prepareStatement(UPSERT_BLOB);
+             PreparedStatement updateRow = connection.prepareStatement(
+                     "UPDATE " + table + " SET content_hash = ? WHERE id = ?")) {
+            rows.setFetchSize(FETCH_SIZE);
+
+            try (ResultSet rs = rows.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong("id");
+                    byte[] content = rs.getBytes("source_file");
+
+                    String hash = ContentHash.sha256Hex(content);
+                    upsertBlob.setString(1, hash);
+                    upsertBlob.setBytes(2, content);
+                    upsertBlob.setLong(3, content.length);
+                    upsertBlob.executeUpdate();
+
+                    updateRow.setString(1, hash);
+                    updateRow.setLong(2, id);
+                    updateRow.executeUpdate();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,3 @@
+CREATE INDEX idx_models_history_model_version ON models_history (model_id, version);
+
+CREATE INDEX idx_schemas_history_schema_version ON schemas_history (schema_id, version);
@@ -0,0 +1,5 @@
+CREATE INDEX idx_models_delete_date ON models (delete_date) WHERE delete_date IS NOT NULL;
+
+CREATE INDEX idx_schemas_delete_date ON schemas (delete_date) WHERE delete_date IS NOT NULL;
+
+CREATE INDEX idx_blobs_unreferenced ON blobs (hash) WHERE ref_count = 0;
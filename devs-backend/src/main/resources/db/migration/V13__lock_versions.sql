@@ -0,0 +1,5 @@
+ALTER TABLE models
+    ADD lock_version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE schemas
+    ADD lock_version BIGINT NOT NULL DEFAULT 0;
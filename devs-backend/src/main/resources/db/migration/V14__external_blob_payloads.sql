@@ -0,0 +1,2 @@
+ALTER TABLE blobs
+    ALTER COLUMN payload DROP NOT NULL;
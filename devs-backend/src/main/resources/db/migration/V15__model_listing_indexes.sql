@@ -0,0 +1,13 @@
+CREATE INDEX idx_models_user_updated ON models (user_id, COALESCE(update_date, create_date), id)
+    WHERE delete_date IS NULL;
+
+CREATE INDEX idx_models_user_created ON models (user_id, create_date, id) WHERE delete_date IS NULL;
+
+CREATE INDEX idx_models_user_name ON models (user_id, lower(name), id) WHERE delete_date IS NULL;
+
+CREATE INDEX idx_models_user_favorite ON models (user_id, COALESCE(update_date, create_date), id)
+    WHERE delete_date IS NULL AND favorite;
+
+CREATE INDEX idx_models_user_deleted ON models (user_id, delete_date) WHERE delete_date IS NOT NULL;
+
+CREATE INDEX idx_model_tags_tag ON model_tags (tag_id);
@@ -0,0 +1,40 @@
+-- Weights rank name matches above tags, tags above the description, and the description above the model's content.
+-- The 'simple' configuration does no stemming, so identifiers such as component names are matched as written.
+CREATE FUNCTION model_search_document(name TEXT, tags TEXT, description TEXT, content_terms TEXT)
+    RETURNS TSVECTOR
+    LANGUAGE SQL
+    IMMUTABLE
+AS
+$$
+SELECT setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+       setweight(to_tsvector('simple', coalesce(tags, '')), 'B') ||
+       setweight(to_tsvector('simple', coalesce(description, '')), 'C') ||
+       setweight(to_tsvector('simple', coalesce(content_terms, '')), 'D')
+$$;
+
+CREATE TABLE model_search
+(
+    model_id      BIGINT   NOT NULL,
+    content_hash  VARCHAR(64),
+    content_terms TEXT,
+    document      TSVECTOR NOT NULL,
+    CONSTRAINT pk_model_search PRIMARY KEY (model_id),
+    CONSTRAINT fk_model_search_on_model FOREIGN KEY (model_id) REFERENCES models (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_model_search_document ON model_search USING GIN (document);
+
+-- Existing models are indexed by name, tags and description here; their content is added by the reindexing job,
+-- which picks up every row whose content_hash does not match its model's.
+INSERT INTO model_search (model_id, content_hash, content_terms, document)
+SELECT m.id,
+       NULL,
+       NULL,
+       model_search_document(m.name,
+                             (SELECT string_agg(t.name, ' ')
+                              FROM model_tags mt
+                                       JOIN tags t ON t.id = mt.tag_id
+                              WHERE mt.model_id = m.id),
+                             m.description,
+                             NULL)
+FROM models m;
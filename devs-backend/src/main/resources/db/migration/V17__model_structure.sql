@@ -0,0 +1,28 @@
+CREATE TABLE model_structures
+(
+    model_id     BIGINT      NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    CONSTRAINT pk_model_structures PRIMARY KEY (model_id),
+    CONSTRAINT fk_model_structures_on_model FOREIGN KEY (model_id) REFERENCES models (id) ON DELETE CASCADE
+);
+
+CREATE TABLE model_components
+(
+    model_id BIGINT NOT NULL,
+    name     TEXT   NOT NULL,
+    CONSTRAINT pk_model_components PRIMARY KEY (model_id, name),
+    CONSTRAINT fk_model_components_on_model FOREIGN KEY (model_id) REFERENCES models (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_model_components_name ON model_components (name, model_id);
+
+CREATE TABLE model_connections
+(
+    model_id BIGINT NOT NULL,
+    source   TEXT   NOT NULL,
+    target   TEXT   NOT NULL,
+    CONSTRAINT pk_model_connections PRIMARY KEY (model_id, source, target),
+    CONSTRAINT fk_model_connections_on_model FOREIGN KEY (model_id) REFERENCES models (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_model_connections_endpoints ON model_connections (source, target, model_id);
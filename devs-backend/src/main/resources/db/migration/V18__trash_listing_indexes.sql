@@ -0,0 +1,7 @@
+-- The trash listing sorts the same ways as the live one, so it gets the same keyset indexes over trashed rows.
+CREATE INDEX idx_models_user_deleted_updated ON models (user_id, COALESCE(update_date, create_date), id)
+    WHERE delete_date IS NOT NULL;
+
+CREATE INDEX idx_models_user_deleted_created ON models (user_id, create_date, id) WHERE delete_date IS NOT NULL;
+
+CREATE INDEX idx_models_user_deleted_name ON models (user_id, lower(name), id) WHERE delete_date IS NOT NULL;
@@ -0,0 +1,17 @@
+CREATE TABLE model_conformance
+(
+    model_id       BIGINT                      NOT NULL,
+    schema_id      BIGINT                      NOT NULL,
+    schema_version INTEGER                     NOT NULL,
+    model_version  INTEGER,
+    valid          BOOLEAN                     NOT NULL,
+    error_message  TEXT,
+    check_date     TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_model_conformance PRIMARY KEY (model_id, schema_id)
+);
+
+ALTER TABLE model_conformance
+    ADD CONSTRAINT FK_MODEL_CONFORMANCE_ON_MODEL FOREIGN KEY (model_id) REFERENCES models (id);
+
+ALTER TABLE model_conformance
+    ADD CONSTRAINT FK_MODEL_CONFORMANCE_ON_SCHEMA FOREIGN KEY (schema_id) REFERENCES schemas (id);
@@ -0,0 +1,40 @@
+CREATE TABLE blobs
+(
+    hash            VARCHAR(64)                 NOT NULL,
+    payload         BYTEA                       NOT NULL,
+    delta_base_hash VARCHAR(64),
+    depth           INTEGER                     NOT NULL,
+    size            BIGINT                      NOT NULL,
+    ref_count       INTEGER                     NOT NULL,
+    create_date     TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_blobs PRIMARY KEY (hash)
+);
+
+ALTER TABLE blobs
+    ADD CONSTRAINT FK_BLOBS_ON_DELTA_BASE FOREIGN KEY (delta_base_hash) REFERENCES blobs (hash);
+
+CREATE INDEX idx_blobs_delta_base_hash ON blobs (delta_base_hash);
+
+ALTER TABLE models
+    ADD content_hash VARCHAR(64);
+
+ALTER TABLE models
+    ADD CONSTRAINT FK_MODELS_ON_CONTENT FOREIGN KEY (content_hash) REFERENCES blobs (hash);
+
+ALTER TABLE models_history
+    ADD content_hash VARCHAR(64);
+
+ALTER TABLE models_history
+    ADD CONSTRAINT FK_MODELS_HISTORY_ON_CONTENT FOREIGN KEY (content_hash) REFERENCES blobs (hash);
+
+ALTER TABLE schemas
+    ADD content_hash VARCHAR(64);
+
+ALTER TABLE schemas
+    ADD CONSTRAINT FK_SCHEMAS_ON_CONTENT FOREIGN KEY (content_hash) REFERENCES blobs (hash);
+
+ALTER TABLE schemas_history
+    ADD content_hash VARCHAR(64);
+
+ALTER TABLE schemas_history
+    ADD CONSTRAINT FK_SCHEMAS_HISTORY_ON_CONTENT FOREIGN KEY (content_hash) REFERENCES blobs (hash);
@@ -0,0 +1,191 @@
+package com.devs.api.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedBitmapTests {
+    // A group is an array container up to this many values and a bitmap container above it.
+    private static final int ARRAY_MAX = 4096;
+    private static final int GROUP = 1 << 16;
+
+    @Test
+    void emptyBitmapHoldsNothing() {
+        CompressedBitmap empty = CompressedBitmap.empty();
+
+        assertTrue(empty.isEmpty());
+        assertEquals(0, empty.cardinality());
+        assertFalse(empty.contains(0));
+        assertArrayEquals(new int[0], empty.descendingBelow(Integer.MAX_VALUE, 10));
+        assertTrue(CompressedBitmap.of().isEmpty());
+    }
+
+    @Test
+    void ofIgnoresOrderAndDuplicates() {
+        CompressedBitmap bitmap = CompressedBitmap.of(7, 3, GROUP + 1, 3, 0);
+
+        assertEquals(4, bitmap.cardinality());
+        assertArrayEquals(new int[]{GROUP + 1, 7, 3, 0}, bitmap.descendingBelow(Integer.MAX_VALUE, 10));
+    }
+
+    @Test
+    void withAndWithoutLeaveTheOriginalUnchanged() {
+        CompressedBitmap original = CompressedBitmap.of(1, 2);
+
+        CompressedBitmap added = original.with(GROUP * 3);
+        CompressedBitmap removed = added.without(1);
+
+        assertEquals(List.of(1, 2), values(original));
+        assertEquals(List.of(1, 2, GROUP * 3), values(added));
+        assertEquals(List.of(2, GROUP * 3), values(removed));
+        assertTrue(removed.without(2).without(GROUP * 3).isEmpty());
+    }
+
+    @Test
+    void unchangedUpdatesReturnTheSameBitmap() {
+        CompressedBitmap bitmap = CompressedBitmap.of(1, 2);
+
+        assertSame(bitmap, bitmap.with(1));
+        assertSame(bitmap, bitmap.without(3));
+        assertSame(bitmap, bitmap.without(GROUP + 1));
+        assertSame(bitmap, bitmap.without(-1));
+    }
+
+    @Test
+    void negativeValuesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CompressedBitmap.of(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> CompressedBitmap.empty().with(-1));
+        assertFalse(CompressedBitmap.of(1).contains(-1));
+    }
+
+    @Test
+    void groupSwitchesToABitmapAndBack() {
+        CompressedBitmap full = CompressedBitmap.of(IntStream.range(0, ARRAY_MAX).map(i -> i * 2).toArray());
+        assertEquals(ARRAY_MAX, full.cardinality());
+
+        CompressedBitmap dense = full.with(1);
+        assertEquals(ARRAY_MAX + 1, dense.cardinality());
+        assertTrue(dense.contains(1));
+        assertTrue(dense.contains(2 * (ARRAY_MAX - 1)));
+        assertFalse(dense.contains(3));
+
+        CompressedBitmap sparse = dense.without(0);
+        assertEquals(ARRAY_MAX, sparse.cardinality());
+        assertFalse(sparse.contains(0));
+        assertTrue(sparse.contains(1));
+        assertEquals(ARRAY_MAX - 1, sparse.without(1).cardinality());
+
+        CompressedBitmap built = CompressedBitmap.of(IntStream.rangeClosed(0, ARRAY_MAX).toArray());
+        assertEquals(ARRAY_MAX + 1, built.cardinality());
+        assertTrue(built.contains(ARRAY_MAX));
+    }
+
+    @Test
+    void setOperationsMixArrayAndBitmapGroups() {
+        CompressedBitmap dense = CompressedBitmap.of(IntStream.range(0, 3 * ARRAY_MAX).toArray());
+        CompressedBitmap sparse = CompressedBitmap.of(5, ARRAY_MAX, 3 * ARRAY_MAX, GROUP + 5);
+
+        assertEquals(List.of(5, ARRAY_MAX), values(dense.and(sparse)));
+        assertEquals(List.of(5, ARRAY_MAX), values(sparse.and(dense)));
+        assertEquals(3 * ARRAY_MAX + 2, dense.or(sparse).cardinality());
+        assertEquals(List.of(3 * ARRAY_MAX, GROUP + 5), values(sparse.andNot(dense)));
+        assertEquals(3 * ARRAY_MAX - 2, dense.andNot(sparse).cardinality());
+        assertEquals(2, dense.andCardinality(sparse));
+        assertTrue(dense.andNot(dense).isEmpty());
+    }
+
+    @Test
+    void descendingBelowStopsAtTheBoundAndLimit() {
+        CompressedBitmap bitmap = CompressedBitmap.of(IntStream.range(0, ARRAY_MAX + 10).toArray())
+                .with(GROUP).with(GROUP + 2).with(3 * GROUP);
+
+        assertArrayEquals(new int[]{3 * GROUP, GROUP + 2, GROUP, ARRAY_MAX + 9},
+                bitmap.descendingBelow(Integer.MAX_VALUE, 4));
+        assertArrayEquals(new int[]{GROUP + 2, GROUP}, bitmap.descendingBelow(3 * GROUP, 2));
+        assertArrayEquals(new int[]{GROUP, ARRAY_MAX + 9}, bitmap.descendingBelow(GROUP + 1, 2));
+        assertArrayEquals(new int[]{2, 1, 0}, bitmap.descendingBelow(3, 10));
+        assertArrayEquals(new int[0], bitmap.descendingBelow(0, 10));
+        assertArrayEquals(new int[0], bitmap.descendingBelow(Integer.MAX_VALUE, 0));
+    }
+
+    @Test
+    void operationsMatchASortedSet() {
+        Random random = new Random(2024);
+        for (int round = 0; round < 40; round++) {
+            TreeSet<Integer> left = randomSet(random);
+            TreeSet<Integer> right = randomSet(random);
+            CompressedBitmap a = bitmapOf(left);
+            CompressedBitmap b = bitmapOf(right);
+
+            TreeSet<Integer> and = new TreeSet<>(left);
+            and.retainAll(right);
+            TreeSet<Integer> or = new TreeSet<>(left);
+            or.addAll(right);
+            TreeSet<Integer> andNot = new TreeSet<>(left);
+            andNot.removeAll(right);
+
+            assertEquals(new ArrayList<>(left), values(a));
+            assertEquals(new ArrayList<>(and), values(a.and(b)));
+            assertEquals(new ArrayList<>(or), values(a.or(b)));
+            assertEquals(new ArrayList<>(andNot), values(a.andNot(b)));
+            assertEquals(and.size(), a.andCardinality(b));
+
+            int bound = random.nextInt(4 * GROUP);
+            int[] expected = left.headSet(bound, false).descendingSet().stream().limit(50).mapToInt(Integer::intValue)
+                    .toArray();
+            assertArrayEquals(expected, a.descendingBelow(bound, 50));
+
+            // Removing every value one at a time also walks dense groups back through the array threshold.
+            CompressedBitmap shrinking = a;
+            for (Integer value : left) {
+                shrinking = shrinking.without(value);
+            }
+            assertTrue(shrinking.isEmpty());
+        }
+    }
+
+    // Values fall in a few groups, some dense enough to become bitmaps.
+    private static TreeSet<Integer> randomSet(Random random) {
+        TreeSet<Integer> values = new TreeSet<>();
+        int groups = random.nextInt(4);
+        for (int group = 0; group < groups; group++) {
+            int base = random.nextInt(4) * GROUP;
+            int count = random.nextBoolean() ? random.nextInt(100) : ARRAY_MAX - 50 + random.nextInt(100);
+            int range = random.nextBoolean() ? 2 * ARRAY_MAX : GROUP;
+            for (int i = 0; i < count; i++) {
+                values.add(base + random.nextInt(range));
+            }
+        }
+        return values;
+    }
+
+    private static CompressedBitmap bitmapOf(TreeSet<Integer> values) {
+        CompressedBitmap bitmap = CompressedBitmap.empty();
+        for (Integer value : values) {
+            bitmap = bitmap.with(value);
+        }
+        assertEquals(bitmap.cardinality(), CompressedBitmap.of(values.stream().mapToInt(Integer::intValue)
+                .toArray()).cardinality());
+        return bitmap;
+    }
+
+    private static List<Integer> values(CompressedBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        for (int value : bitmap.descendingBelow(Integer.MAX_VALUE, Integer.MAX_VALUE)) {
+            values.add(0, value);
+        }
+        assertEquals(bitmap.cardinality(), values.size());
+        return values;
+    }
+}
@@ -0,0 +1,158 @@
+package com.devs.api.controller;
+
+import com.devs.api.entity.Model;
+import com.devs.api.entity.Role;
+import com.devs.api.entity.Schema;
+import com.devs.api.entity.User;
+import com.devs.api.repository.UserRepository;
+import com.devs.api.service.ModelService;
+import com.devs.api.service.SchemaService;
+import com.devs.api.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the statements each listing endpoint issues and fails when the count changes or grows with the number of
+ * rows listed, which is how an association loaded once per row shows up. Each test runs in a transaction that is
+ * rolled back, standing in for the request-scoped session the endpoints get in production.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.devs.api.support.StatementCounter")
+@Transactional
+class ListingStatementCountTests {
+    private static final int FEW = 2;
+    private static final int MANY = 25;
+
+    @Autowired
+    private ModelController modelController;
+
+    @Autowired
+    private SchemaController schemaController;
+
+    @Autowired
+    private ModelService modelService;
+
+    @Autowired
+    private SchemaService schemaService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private Authentication authentication;
+
+    @BeforeEach
+    void createUser() {
+        user = createUser("owner");
+        authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    @Test
+    void listingModelsTakesOneStatement() {
+        assertStatements(1, () -> modelController.getModels(authentication));
+    }
+
+    @Test
+    void listingDeletedModelsTakesOneStatement() {
+        assertStatements(1, () -> modelController.getDeletedModels(authentication));
+    }
+
+    @Test
+    void pagingModelsTakesTwoStatements() {
+        assertStatements(2, () -> modelController.getModelPage(false, null, List.of("tag-a"), null, "updated",
+                "desc", null, 2 * MANY, authentication));
+    }
+
+    @Test
+    void listingSchemasTakesOneStatement() {
+        assertStatements(1, () -> schemaController.getSchemas());
+    }
+
+    /**
+     * Checks the endpoint issues {@code expected} statements with a few files listed and again with many.
+     */
+    private void assertStatements(int expected, Supplier<ResponseEntity<?>> endpoint) {
+        createFiles(FEW);
+        assertEquals(expected, measure(endpoint), "statements with " + FEW + " files of each kind");
+
+        createFiles(MANY - FEW);
+        assertEquals(expected, measure(endpoint), "statements with " + MANY + " files of each kind");
+    }
+
+    private int measure(Supplier<ResponseEntity<?>> endpoint) {
+        // Start from an empty session, so nothing is served from the entities created as fixtures.
+        entityManager.flush();
+        entityManager.clear();
+        StatementCounter.reset();
+        ResponseEntity<?> response = endpoint.get();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return StatementCounter.count();
+    }
+
+    /**
+     * Adds {@code count} live and {@code count} trashed models for the user, and {@code count} schemas each owned by a
+     * different user.
+     */
+    private void createFiles(int count) {
+        for (int i = 0; i < count; i++) {
+            createModel(i, false);
+            createModel(i, true);
+
+            Schema schema = new Schema();
+            schema.setName("schema " + i);
+            schema.setDescription("statement count");
+            schema.setCreateDate(new Date());
+            schema.setVersion(1);
+            schema.setUser(createUser("schema-owner"));
+            schema.setSourceFile(source("xs:schema"));
+            schemaService.save(schema);
+        }
+    }
+
+    private void createModel(int index, boolean deleted) {
+        Model model = modelService.createModel("model " + index, "statement count", List.of("tag-a", "tag-b"),
+                source("devsModel"), user);
+        model.setFavorite(index % 2 == 0);
+        if (deleted) {
+            model.setDeleteDate(new Date());
+        }
+    }
+
+    private User createUser(String prefix) {
+        String name = prefix + "-" + UUID.randomUUID();
+        return userRepository.save(User.builder()
+                .firstName("Statement")
+                .lastName("Counter")
+                .username(name)
+                .email(name + "@example.com")
+                .password("unused")
+                .university("none")
+                .role(Role.USER)
+                .createDate(new Date())
+                .build());
+    }
+
+    private static byte[] source(String root) {
+        return ("<" + root + "><component>" + UUID.randomUUID() + "</component></" + root + ">")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,152 @@
+package com.devs.api.controller;
+
+import com.devs.api.entity.Model;
+import com.devs.api.entity.ModelHistory;
+import com.devs.api.entity.Role;
+import com.devs.api.entity.User;
+import com.devs.api.repository.UserRepository;
+import com.devs.api.service.ModelService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the model endpoints answer another user's requests with 403 instead of the model.
+ */
+@SpringBootTest
+@Transactional
+class ModelOwnershipTests {
+    @Autowired
+    private ModelController modelController;
+
+    @Autowired
+    private ModelService modelService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Model model;
+    private Authentication owner;
+    private Authentication stranger;
+
+    @BeforeEach
+    void createModel() {
+        User user = createUser("owner");
+        owner = authenticate(user);
+        stranger = authenticate(createUser("stranger"));
+        model = modelService.createModel("owned", "ownership", List.of("tag-a"), source("a"), user);
+    }
+
+    @Test
+    void ownerReadsContent() {
+        assertEquals(HttpStatus.OK, modelController.getModelContent(model.getId(), request(), owner).getStatusCode());
+    }
+
+    @Test
+    void strangerCannotReadContent() {
+        assertEquals(HttpStatus.FORBIDDEN,
+                modelController.getModelContent(model.getId(), request(), stranger).getStatusCode());
+    }
+
+    @Test
+    void strangerCannotReadVersionContent() {
+        int version = addVersion();
+        assertEquals(HttpStatus.FORBIDDEN,
+                modelController.getModelVersionContent(model.getId(), version, request(), stranger).getStatusCode());
+    }
+
+    @Test
+    void strangerCannotReadHistory() {
+        addVersion();
+        assertEquals(HttpStatus.FORBIDDEN,
+                modelController.getModelHistory(model.getId(), null, 20, stranger).getStatusCode());
+    }
+
+    @Test
+    void strangerCannotReadVersion() {
+        int version = addVersion();
+        assertEquals(HttpStatus.FORBIDDEN,
+                modelController.getModelVersion(model.getId(), version, stranger).getStatusCode());
+    }
+
+    @Test
+    void strangerCannotDiffVersions() {
+        int version = addVersion();
+        assertEquals(HttpStatus.FORBIDDEN,
+                modelController.getModelDiff(model.getId(), version, model.getVersion(), stranger).getStatusCode());
+    }
+
+    @Test
+    void strangerCannotReadConformance() {
+        assertEquals(HttpStatus.FORBIDDEN,
+                modelController.getModelConformance(model.getId(), stranger).getStatusCode());
+    }
+
+    @Test
+    void strangerCannotReadModel() {
+        assertEquals(HttpStatus.FORBIDDEN, modelController.getModelById(model.getId(), stranger).getStatusCode());
+    }
+
+    @Test
+    void strangerCannotDeleteModel() {
+        assertEquals(HttpStatus.FORBIDDEN, modelController.deleteModelById(model.getId(), stranger).getStatusCode());
+    }
+
+    /**
+     * Moves the current source into a history row the way an update does, and returns that row's version.
+     */
+    private int addVersion() {
+        ModelHistory history = new ModelHistory();
+        history.setModel(model);
+        history.setSourceFile(model.getSourceFile());
+        history.setVersion(model.getVersion());
+        history.setCreateDate(model.getCreateDate());
+        history.setUpdateDate(new Date());
+        history.setUser(model.getUser());
+
+        model.setSourceFile(source("b"));
+        model.setVersion(model.getVersion() + 1);
+        model.setUpdateDate(new Date());
+        modelService.saveWithHistory(model, history);
+        return history.getVersion();
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest();
+    }
+
+    private static byte[] source(String component) {
+        return ("<devsModel><component>" + component + "</component></devsModel>").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Authentication authenticate(User user) {
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    private User createUser(String prefix) {
+        String name = prefix + "-" + UUID.randomUUID();
+        return userRepository.save(User.builder()
+                .firstName("Model")
+                .lastName("Owner")
+                .username(name)
+                .email(name + "@example.com")
+                .password("unused")
+                .university("none")
+                .role(Role.USER)
+                .createDate(new Date())
+                .build());
+    }
+}
@@ -0,0 +1,116 @@
+package com.devs.api.controller;
+
+import com.devs.api.entity.Role;
+import com.devs.api.entity.Schema;
+import com.devs.api.entity.User;
+import com.devs.api.repository.SchemaRepository;
+import com.devs.api.repository.UserRepository;
+import com.devs.api.validation.ModelValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that uploading a schema under a name other schemas include takes effect at once, instead of those schemas
+ * validating against the cached copy of the schema that had the name before.
+ */
+@SpringBootTest
+@Transactional
+class SchemaUploadCacheTests {
+    private static final int MAX_ERRORS = 10;
+
+    @Autowired
+    private SchemaController schemaController;
+
+    @Autowired
+    private SchemaRepository schemaRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ModelValidator modelValidator;
+
+    private Authentication admin;
+
+    @BeforeEach
+    void signInAdmin() {
+        String name = "admin-" + UUID.randomUUID();
+        User user = userRepository.save(User.builder()
+                .firstName("Schema")
+                .lastName("Admin")
+                .username(name)
+                .email(name + "@example.com")
+                .password("unused")
+                .university("none")
+                .role(Role.ADMIN)
+                .createDate(new Date())
+                .build());
+        admin = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(admin);
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void uploadReplacesTheIncludedSchemaByName() throws IOException {
+        String base = "base-" + UUID.randomUUID();
+        String mainName = "main-" + UUID.randomUUID();
+        upload(base, countType("xs:int"));
+        upload(mainName, """
+                <xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema">
+                  <xs:include schemaLocation="%s.xsd"/>
+                  <xs:element name="count" type="Count"/>
+                </xs:schema>
+                """.formatted(base));
+        Schema main = schemaRepository.findFirstByNameAndDeleteDateIsNullOrderByIdDesc(mainName).orElseThrow();
+
+        assertFalse(validate(main), "the first base only allows numbers");
+
+        upload(base, countType("xs:string"));
+
+        assertTrue(validate(main), "the newer base allows any text");
+    }
+
+    private void upload(String name, String xsd) {
+        MockMultipartFile file = new MockMultipartFile("file", name + ".xsd", "application/xml",
+                xsd.getBytes(StandardCharsets.UTF_8));
+        assertEquals(HttpStatus.OK, schemaController.uploadSchema(name, file, "", admin).getStatusCode());
+    }
+
+    private boolean validate(Schema schema) throws IOException {
+        MockMultipartFile model = new MockMultipartFile("file", "model.xml", "application/xml",
+                "<count>many</count>".getBytes(StandardCharsets.UTF_8));
+        return modelValidator.validate(model, schema, MAX_ERRORS).isValid();
+    }
+
+    private static String countType(String base) {
+        return """
+                <xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema">
+                  <xs:simpleType name="Count">
+                    <xs:restriction base="%s"/>
+                  </xs:simpleType>
+                </xs:schema>
+                """.formatted(base);
+    }
+}
@@ -0,0 +1,138 @@
+package com.devs.api.diff;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LineDiffTests {
+
+    @Test
+    void emptyInputsHaveNoChanges() {
+        LineDiff.Result result = LineDiff.diff(List.of(), List.of());
+
+        assertEquals(0, result.deleted().length);
+        assertEquals(0, result.inserted().length);
+    }
+
+    @Test
+    void identicalInputsHaveNoChanges() {
+        List<String> lines = List.of("<devsModel>", "<component>A</component>", "</devsModel>");
+
+        LineDiff.Result result = LineDiff.diff(lines, new ArrayList<>(lines));
+
+        assertArrayEquals(new boolean[3], result.deleted());
+        assertArrayEquals(new boolean[3], result.inserted());
+    }
+
+    @Test
+    void insertedLinesAreTheOnlyChanges() {
+        LineDiff.Result result = LineDiff.diff(List.of("a", "d"), List.of("a", "b", "c", "d"));
+
+        assertArrayEquals(new boolean[]{false, false}, result.deleted());
+        assertArrayEquals(new boolean[]{false, true, true, false}, result.inserted());
+    }
+
+    @Test
+    void deletedLinesAreTheOnlyChanges() {
+        LineDiff.Result result = LineDiff.diff(List.of("a", "b", "c", "d"), List.of("b", "d"));
+
+        assertArrayEquals(new boolean[]{true, false, true, false}, result.deleted());
+        assertArrayEquals(new boolean[]{false, false}, result.inserted());
+    }
+
+    @Test
+    void diffAgainstEmptyInputChangesEveryLine() {
+        assertArrayEquals(new boolean[]{true, true}, LineDiff.diff(List.of("a", "b"), List.of()).deleted());
+        assertArrayEquals(new boolean[]{true, true}, LineDiff.diff(List.of(), List.of("a", "b")).inserted());
+    }
+
+    @Test
+    void diffIsMinimalBelowTheCostLimit() {
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            List<String> from = randomLines(random, random.nextInt(40));
+            List<String> to = randomLines(random, random.nextInt(40));
+
+            LineDiff.Result result = LineDiff.diff(from, to);
+
+            assertConsistent(from, to, result);
+            assertEquals(from.size() + to.size() - 2 * longestCommonSubsequence(from, to), changes(result),
+                    "Diff of " + from + " and " + to);
+        }
+    }
+
+    @Test
+    void costLimitFallsBackToAConsistentDiff() {
+        Random random = new Random(7);
+        List<String> from = randomLines(random, 2000);
+        List<String> to = randomLines(random, 2000);
+
+        LineDiff.Result limited = LineDiff.diff(from, to, 1);
+        LineDiff.Result exact = LineDiff.diff(from, to, Integer.MAX_VALUE);
+
+        assertConsistent(from, to, limited);
+        assertConsistent(from, to, exact);
+        assertTrue(changes(limited) >= changes(exact));
+        assertTrue(changes(limited) < from.size() + to.size(), "Fallback still keeps common lines");
+    }
+
+    private static List<String> randomLines(Random random, int count) {
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add("line " + random.nextInt(4));
+        }
+        return lines;
+    }
+
+    // The lines left unmarked on both sides must be the same sequence, or the diff cannot turn one into the other.
+    private static void assertConsistent(List<String> from, List<String> to, LineDiff.Result result) {
+        assertEquals(from.size(), result.deleted().length);
+        assertEquals(to.size(), result.inserted().length);
+        assertEquals(kept(from, result.deleted()), kept(to, result.inserted()));
+    }
+
+    private static List<String> kept(List<String> lines, boolean[] changed) {
+        List<String> kept = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (!changed[i]) {
+                kept.add(lines.get(i));
+            }
+        }
+        return kept;
+    }
+
+    private static int changes(LineDiff.Result result) {
+        int changes = 0;
+        for (boolean deleted : result.deleted()) {
+            changes += deleted ? 1 : 0;
+        }
+        for (boolean inserted : result.inserted()) {
+            changes += inserted ? 1 : 0;
+        }
+        return changes;
+    }
+
+    private static int longestCommonSubsequence(List<String> from, List<String> to) {
+        int[] previous = new int[to.size() + 1];
+        int[] current = new int[to.size() + 1];
+        for (String line : from) {
+            for (int j = 1; j <= to.size(); j++) {
+                current[j] = line.equals(to.get(j - 1))
+                        ? previous[j - 1] + 1
+                        : Math.max(previous[j], current[j - 1]);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+            Arrays.fill(current, 0);
+        }
+        return previous[to.size()];
+    }
+}
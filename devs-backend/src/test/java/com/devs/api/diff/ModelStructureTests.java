@@ -0,0 +1,49 @@
+package com.devs.api.diff;
+
+import com.devs.api.diff.ModelStructure.Connection;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ModelStructureTests {
+
+    @Test
+    void structureListsComponentsAndConnectionsOnce() {
+        ModelStructure structure = parse("""
+                <devsModel>
+                  <component>Generator</component>
+                  <component>Processor</component>
+                  <component>Processor</component>
+                  <connections>
+                    <connection source=" Generator " target="Processor"/>
+                    <connection source="Generator" target="Processor"/>
+                    <connection source="Generator"/>
+                  </connections>
+                </devsModel>
+                """);
+
+        assertEquals(Set.of("Generator", "Processor"), structure.components());
+        assertEquals(Set.of(new Connection("Generator", "Processor")), structure.connections());
+    }
+
+    @Test
+    void otherDocumentsHaveNoStructure() {
+        ModelStructure structure = parse("<schema><component>A</component></schema>");
+
+        assertEquals(Set.of(), structure.components());
+        assertEquals(Set.of(), structure.connections());
+    }
+
+    @Test
+    void malformedDocumentHasNoStructure() {
+        assertNull(parse("<devsModel><component>A</devsModel>"));
+    }
+
+    private static ModelStructure parse(String xml) {
+        return ModelStructure.parse(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,92 @@
+package com.devs.api.diff;
+
+import com.devs.api.diff.XmlStructure.Part;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class XmlStructureTests {
+
+    @Test
+    void modelPartsAreComponentsAndConnections() {
+        Map<Part, String> parts = parse("""
+                <devsModel>
+                  <component>Generator</component>
+                  <component>Processor</component>
+                  <connections>
+                    <connection source="Generator" target="Processor"/>
+                  </connections>
+                </devsModel>
+                """);
+
+        assertEquals(Set.of(
+                new Part("component", "Generator", null, 1),
+                new Part("component", "Processor", null, 1),
+                new Part("connection", "Generator", "Processor", 1)), parts.keySet());
+    }
+
+    @Test
+    void fingerprintIgnoresLayoutAndAttributeOrder() {
+        Map<Part, String> compact = parse("<devsModel><connections>"
+                + "<connection source=\"A\" target=\"B\"/></connections></devsModel>");
+        Map<Part, String> reformatted = parse("""
+                <devsModel>
+                  <connections>
+                    <connection target="B"   source="A" />
+                  </connections>
+                </devsModel>
+                """);
+
+        assertEquals(compact, reformatted);
+    }
+
+    @Test
+    void fingerprintChangesWithContent() {
+        Map<Part, String> before = parse("<schema><element name=\"a\" type=\"string\"/></schema>");
+        Map<Part, String> after = parse("<schema><element name=\"a\" type=\"int\"/></schema>");
+
+        Part part = new Part("element", "a", null, 1);
+        assertNotEquals(before.get(part), after.get(part));
+    }
+
+    @Test
+    void repeatedPartsAreNumbered() {
+        Map<Part, String> parts = parse("<devsModel><component>A</component><component>A</component></devsModel>");
+
+        assertEquals(Set.of(new Part("component", "A", null, 1), new Part("component", "A", null, 2)),
+                parts.keySet());
+    }
+
+    @Test
+    void labelsNameConnectionsAndRepeats() {
+        assertEquals("A -> B", new Part("connection", "A", "B", 1).label());
+        assertEquals("A #2", new Part("component", "A", null, 2).label());
+    }
+
+    @Test
+    void onlyModelsHaveModelParts() {
+        assertEquals(Map.of(), XmlStructure.parseModel(
+                "<schema><component name=\"A\"/></schema>".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void malformedDocumentHasNoStructure() {
+        assertNull(parse("<devsModel><component>A</devsModel>"));
+    }
+
+    @Test
+    void documentTypeDeclarationIsRejected() {
+        assertNull(parse("<!DOCTYPE devsModel [<!ENTITY name \"A\">]><devsModel><component>&name;</component>"
+                + "</devsModel>"));
+    }
+
+    private static Map<Part, String> parse(String xml) {
+        return XmlStructure.parse(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
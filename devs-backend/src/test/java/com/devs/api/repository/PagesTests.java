@@ -0,0 +1,39 @@
+package com.devs.api.repository;
+
+import com.devs.api.repository.Pages.Slice;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PagesTests {
+
+    @Test
+    void clampKeepsSizeBetweenOneAndMax() {
+        assertEquals(1, Pages.clamp(0, 50));
+        assertEquals(20, Pages.clamp(20, 50));
+        assertEquals(50, Pages.clamp(500, 50));
+    }
+
+    @Test
+    void extraRowMeansAnotherPageFollows() {
+        Slice<Integer> slice = Pages.slice(List.of(5, 4, 3), 2);
+
+        assertEquals(List.of(5, 4), slice.items());
+        assertTrue(slice.hasMore());
+        assertEquals(4, slice.last());
+    }
+
+    @Test
+    void lastPageHasNoNextCursor() {
+        Slice<Integer> slice = Pages.slice(List.of(5, 4), 2);
+
+        assertEquals(List.of(5, 4), slice.items());
+        assertFalse(slice.hasMore());
+        assertNull(slice.last());
+    }
+}
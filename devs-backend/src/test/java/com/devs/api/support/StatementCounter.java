@@ -0,0 +1,28 @@
+package com.devs.api.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements Hibernate prepares. Registered through
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}, which instantiates it by class name, so
+ * the count is kept in a static field.
+ */
+public class StatementCounter implements StatementInspector {
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.incrementAndGet();
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.set(0);
+    }
+
+    public static int count() {
+        return COUNT.get();
+    }
+}
@@ -98,7 +98,11 @@ const AddEditModel: React.FC<AddEditModelProps> = ({
     formData.append("schemaId", selectedValidSchema);
 
     if (model) {
-      const response = await ModelStore.updateModel(formData, model.id);
+      const response = await ModelStore.updateModel(
+        formData,
+        model.id,
+        model.lockVersion
+      );
       if (response) {
         onClose();
         cleanModal();
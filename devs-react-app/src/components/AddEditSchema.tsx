@@ -58,7 +58,7 @@ const AddEditSchema: React.FC<AddEditSchemaProps> = ({
     formData.append("description", description);
 
     if (schema) {
-      await SchemaStore.updateSchema(formData, schema.id);
+      await SchemaStore.updateSchema(formData, schema.id, schema.lockVersion);
     } else {
       await SchemaStore.uploadSchema(formData);
     }
@@ -11,7 +11,7 @@ import {
   Button,
   Typography,
 } from "@mui/material";
-import { base64ToFile } from "../utils/file";
+import { downloadFile } from "../utils/file";
 import moment from "moment";
 import { Download, RestoreFromTrash } from "@mui/icons-material";
 import { Model } from "../entities/model";
@@ -22,6 +22,11 @@ interface ModelTableProps {
   loading: boolean;
 }
 
+const handleDownload = async (model: Model) => {
+  const file = await ModelStore.getModelFile(model.id, `${model.name}.xml`);
+  if (file) downloadFile(file);
+};
+
 export const ModelTable: React.FC<ModelTableProps> = ({ models, loading }) => {
   if (!models.length && !loading)
     return (
@@ -45,10 +50,6 @@ export const ModelTable: React.FC<ModelTableProps> = ({ models, loading }) => {
         </TableHead>
         <TableBody>
           {models.map((model) => {
-            const file = base64ToFile(
-              model.sourceFile as string,
-              `${model.name}_${model.id}.xml`
-            );
             return (
               <TableRow key={model.id}>
                 <TableCell>{model.id}</TableCell>
@@ -71,8 +72,7 @@ export const ModelTable: React.FC<ModelTableProps> = ({ models, loading }) => {
                   <Button
                     variant="outlined"
                     color="primary"
-                    href={URL.createObjectURL(file)}
-                    download={`${model.name}.xml`}
+                    onClick={() => handleDownload(model)}
                     style={{ textDecoration: "none" }}
                     startIcon={<Download />}
                   >
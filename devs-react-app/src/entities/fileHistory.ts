@@ -2,9 +2,14 @@ import { User } from "./user";
 
 export interface FileHistory {
   id: number;
-  sourceFile: File | string;
+  sourceFile?: File | string;
   version: number;
   createDate: Date;
   updateDate?: Date;
   user: User;
 }
+
+export interface FileHistoryPage {
+  items: FileHistory[];
+  nextBefore: number | null;
+}
@@ -5,3 +5,14 @@ export interface Model extends VersionableFile {
   tags: Tag[];
   favorite?: boolean;
 }
+
+export interface ModelFilter {
+  search?: string;
+  favorite?: boolean;
+  tags?: string[];
+}
+
+export interface ModelPage {
+  items: Model[];
+  nextCursor: string | null;
+}
@@ -31,7 +31,7 @@ const Dashboard = () => {
   }, [SessionStore.isLoggedIn]);
 
   const getModels = async () => {
-    await ModelStore.getModels();
+    await ModelStore.getModels({});
     setDataLoaded(true);
   };
 
@@ -22,6 +22,7 @@ import {
   FavoriteOutlined,
   Search,
 } from "@mui/icons-material";
+import { observer } from "mobx-react";
 import { ViewXMLFile } from "../../components/ViewXMLFile";
 import ModelStore from "../../stores/ModelStore";
 import LoadingAnimation from "../../components/LoadingAnimation/LoadingAnimation";
@@ -31,7 +32,7 @@ import { ModelCard } from "./modelCard/ModelCard";
 import MultipleSelectChip from "../../components/MultipleSelectChip";
 import TagStore from "../../stores/TagStore";
 
-export const ModelCards = () => {
+export const ModelCards = observer(() => {
   const theme = useTheme<Theme>();
   const [anchorEl, setAnchorEl] = useState<null | HTMLElement>(null);
   const [selectedModel, setSelectedModel] = useState<Model | null>(null);
@@ -47,72 +48,44 @@ export const ModelCards = () => {
   const [favoriteOnly, setFavoriteOnly] = useState(false);
   const [dataLoaded, setDataLoaded] = useState(false);
   const [searchTerm, setSearchTerm] = useState("");
-  const [filteredAndSortedModels, setFilteredAndSortedModels] = useState<
-    Model[]
-  >([]);
-
-  const getModels = async () => {
-    const models = await ModelStore.getModels();
-    setFilteredAndSortedModels(models);
-    setDataLoaded(true);
-  };
+  const [debouncedSearchTerm, setDebouncedSearchTerm] = useState("");
 
+  // Filtering happens on the server, so typing only queries once it pauses.
   useEffect(() => {
-    if (!dataLoaded) getModels();
-  }, [dataLoaded]);
-
-  const filterModels = (
-    models: Model[],
-    searchTerm: string,
-    favoriteOnly: boolean,
-    selectedTags: string[]
-  ) => {
-    const normalizedSearchTerm = searchTerm.toLowerCase().trim();
-
-    return models.filter((model) => {
-      const normalizedModelName = model.name.toLowerCase();
-      const normalizedDescription = model.description.toLowerCase();
-      const normalizedUsername = model.username.toLowerCase();
-      const favorite = favoriteOnly ? model.favorite : true;
-      const tags =
-        selectedTags.length > 0
-          ? model.tags.some((tag) => tag.name === selectedTags[0])
-          : true;
-
-      return (
-        (normalizedModelName.includes(normalizedSearchTerm) ||
-          normalizedDescription.includes(normalizedSearchTerm) ||
-          normalizedUsername.includes(normalizedSearchTerm)) &&
-        favorite &&
-        tags
-      );
-    });
-  };
+    const timeout = setTimeout(() => setDebouncedSearchTerm(searchTerm), 300);
+    return () => clearTimeout(timeout);
+  }, [searchTerm]);
 
   useEffect(() => {
-    if (searchTerm === "") {
-      setFilteredAndSortedModels(ModelStore.models);
-    }
-    const filteredModels = filterModels(
-      ModelStore.models,
-      searchTerm,
-      favoriteOnly,
-      selectedTags
-    );
-    setFilteredAndSortedModels(filteredModels);
-  }, [searchTerm, selectedTags, favoriteOnly, ModelStore.models]);
+    const getModels = async () => {
+      await ModelStore.getModels({
+        search: debouncedSearchTerm.trim() || undefined,
+        favorite: favoriteOnly || undefined,
+        tags: selectedTags.length > 0 ? [selectedTags[0]] : undefined,
+      });
+      setDataLoaded(true);
+    };
+    getModels();
+  }, [debouncedSearchTerm, selectedTags, favoriteOnly]);
 
   const handleFavoriteClick = async (
     event: React.MouseEvent<HTMLButtonElement>
   ) => {
-    const modelId = event.currentTarget.getAttribute("data-model-id");
-    await ModelStore.markAsFavorite(parseInt(modelId as string));
-    setDataLoaded(false);
+    const modelId = parseInt(
+      event.currentTarget.getAttribute("data-model-id") as string
+    );
+    const model = ModelStore.models.find((model) => model.id === modelId);
+    await ModelStore.markAsFavorite(modelId, model?.lockVersion);
   };
 
-  const findModelAndFile = (modelId: number) => {
+  const findModel = (modelId: number) => {
     const modelFinded = ModelStore.models.find((model) => model.id === modelId);
     setSelectedModel(modelFinded || null);
+  };
+
+  const findModelAndFile = async (modelId: number) => {
+    const modelFinded = await ModelStore.getModel(modelId);
+    setSelectedModel(modelFinded || null);
     setFile(
       base64ToFile(
         modelFinded?.sourceFile as string,
@@ -124,7 +97,8 @@ export const ModelCards = () => {
   const handleClick = (event: React.MouseEvent<HTMLButtonElement>) => {
     setAnchorEl(event.currentTarget);
     const modelId = event.currentTarget.getAttribute("data-model-id");
-    findModelAndFile(Number(modelId));
+    findModel(Number(modelId));
+    ModelStore.getModelHistory(Number(modelId));
   };
 
   const handleClose = () => {
@@ -134,7 +108,7 @@ export const ModelCards = () => {
   };
 
   const handleDelete = (modelId: number) => {
-    findModelAndFile(modelId);
+    findModel(modelId);
     setDeleteDialogOpen(true);
   };
 
@@ -160,7 +134,8 @@ export const ModelCards = () => {
     if (selectedModel && selectedHistory) {
       await ModelStore.restoreModel(
         selectedModel.id as number,
-        selectedHistory.version as number
+        selectedHistory.version as number,
+        selectedModel.lockVersion
       );
     }
     setRestoreDialogOpen(false);
@@ -171,8 +146,8 @@ export const ModelCards = () => {
     setRestoreDialogOpen(false);
   };
 
-  const handleEdit = (modelId: number) => {
-    findModelAndFile(modelId);
+  const handleEdit = async (modelId: number) => {
+    await findModelAndFile(modelId);
     setDialogOpen(true);
   };
 
@@ -181,20 +156,20 @@ export const ModelCards = () => {
     handleClose();
   };
 
-  const handleViewDetails = (modelId: number) => {
-    findModelAndFile(modelId);
+  const handleViewDetails = async (modelId: number) => {
+    await findModelAndFile(modelId);
     setViewModelOpen(true);
   };
 
-  const handleViewXMLVersion = (model: Model, history: FileHistory) => {
+  const handleViewXMLVersion = async (model: Model, history: FileHistory) => {
+    const versionFile = await ModelStore.getModelFile(
+      model.id,
+      `${model?.name}_${model?.id}_${`version ${history.version}`}.xml`,
+      history.version
+    );
     setSelectedModel(model);
     setSelectedHistory(history);
-    setFile(
-      base64ToFile(
-        history?.sourceFile as string,
-        `${model?.name}_${model?.id}_${`version ${history.version}`}.xml`
-      )
-    );
+    setFile(versionFile || null);
     setViewModelOpen(true);
   };
 
@@ -268,7 +243,7 @@ export const ModelCards = () => {
       <Paper style={{ padding: 20, marginTop: 10, gap: 20, flexWrap: "wrap" }}>
         {dataLoaded && (
           <div className="d-flex flex-column" style={{ gap: 20 }}>
-            {filteredAndSortedModels.map((model) => {
+            {ModelStore.models.map((model) => {
               return (
                 <ModelCard
                   model={model}
@@ -286,7 +261,16 @@ export const ModelCards = () => {
                 />
               );
             })}
-            {!filteredAndSortedModels.length && !ModelStore.isLoading && (
+            {ModelStore.modelsNextCursor && !ModelStore.isLoading && (
+              <Button
+                variant="outlined"
+                onClick={() => ModelStore.loadMoreModels()}
+                color={theme.palette.mode === "dark" ? "secondary" : "primary"}
+              >
+                Load more models
+              </Button>
+            )}
+            {!ModelStore.models.length && !ModelStore.isLoading && (
               <Typography sx={{ textAlign: "center" }}>
                 {" "}
                 No models found{" "}
@@ -351,4 +335,4 @@ export const ModelCards = () => {
       </Paper>
     </>
   );
-};
+});
@@ -1,4 +1,5 @@
 import {
+  Button,
   Divider,
   IconButton,
   Popover,
@@ -7,6 +8,7 @@ import {
   Typography,
 } from "@mui/material";
 import { Model } from "../../../entities/model";
+import ModelStore from "../../../stores/ModelStore";
 import { FileHistory } from "../../../entities/fileHistory";
 import {
   Timeline,
@@ -18,6 +20,7 @@ import {
   TimelineSeparator,
 } from "@mui/lab";
 import moment from "moment";
+import { observer } from "mobx-react";
 import { Code, Replay } from "@mui/icons-material";
 
 interface ModelHistoryProps {
@@ -30,7 +33,7 @@ interface ModelHistoryProps {
   theme: Theme;
 }
 
-export const ModelHistoryPopover: React.FC<ModelHistoryProps> = ({
+export const ModelHistoryPopover: React.FC<ModelHistoryProps> = observer(({
   model,
   anchorEl,
   handleClose,
@@ -56,7 +59,7 @@ export const ModelHistoryPopover: React.FC<ModelHistoryProps> = ({
           <TimelineItem>
             <TimelineSeparator>
               <TimelineDot color={"secondary"} />
-              {model && model?.history.length > 0 && <TimelineConnector />}
+              {ModelStore.history.length > 0 && <TimelineConnector />}
             </TimelineSeparator>
             <TimelineOppositeContent display="none" />
             <TimelineContent sx={{ py: "12px", px: 2 }}>
@@ -98,7 +101,7 @@ export const ModelHistoryPopover: React.FC<ModelHistoryProps> = ({
             </TimelineContent>
           </TimelineItem>
 
-          {model?.history
+          {ModelStore.history
             .filter((h: FileHistory) => h.version !== model.version)
             .sort((a, b) => b.version - a.version)
             .map((h: FileHistory, index: number, array: FileHistory[]) => (
@@ -173,7 +176,16 @@ export const ModelHistoryPopover: React.FC<ModelHistoryProps> = ({
               </TimelineItem>
             ))}
         </Timeline>
+        {ModelStore.historyNextBefore !== null && model && (
+          <Button
+            fullWidth
+            size="small"
+            onClick={() => ModelStore.loadMoreModelHistory(model.id)}
+          >
+            Load older versions
+          </Button>
+        )}
       </div>
     </Popover>
   );
-};
+});
@@ -1,4 +1,5 @@
 import {
+  Button,
   Divider,
   IconButton,
   Popover,
@@ -16,8 +17,10 @@ import {
   TimelineSeparator,
 } from "@mui/lab";
 import moment from "moment";
+import { observer } from "mobx-react";
 import { Code, Replay } from "@mui/icons-material";
 import { Schema } from "../../entities/schema";
+import SchemaStore from "../../stores/SchemaStore";
 import { FileHistory } from "../../entities/fileHistory";
 
 interface SchemaHistoryProps {
@@ -29,7 +32,7 @@ interface SchemaHistoryProps {
   theme: Theme;
 }
 
-export const SchemaHistoryPopover: React.FC<SchemaHistoryProps> = ({
+export const SchemaHistoryPopover: React.FC<SchemaHistoryProps> = observer(({
   schema,
   anchorEl,
   handleClose,
@@ -54,7 +57,7 @@ export const SchemaHistoryPopover: React.FC<SchemaHistoryProps> = ({
           <TimelineItem>
             <TimelineSeparator>
               <TimelineDot color={"secondary"} />
-              {schema && schema?.history.length > 0 && <TimelineConnector />}
+              {SchemaStore.history.length > 0 && <TimelineConnector />}
             </TimelineSeparator>
             <TimelineOppositeContent display="none" />
             <TimelineContent sx={{ px: 2 }}>
@@ -99,7 +102,7 @@ export const SchemaHistoryPopover: React.FC<SchemaHistoryProps> = ({
             </TimelineContent>
           </TimelineItem>
 
-          {schema?.history
+          {SchemaStore.history
             .filter((h: FileHistory) => h.version !== schema.version)
             .sort((a, b) => b.version - a.version)
             .map((h: FileHistory, index: number, array: FileHistory[]) => (
@@ -177,7 +180,16 @@ export const SchemaHistoryPopover: React.FC<SchemaHistoryProps> = ({
               </TimelineItem>
             ))}
         </Timeline>
+        {SchemaStore.historyNextBefore !== null && schema && (
+          <Button
+            fullWidth
+            size="small"
+            onClick={() => SchemaStore.loadMoreSchemaHistory(schema.id)}
+          >
+            Load older versions
+          </Button>
+        )}
       </div>
     </Popover>
   );
-};
+});
@@ -30,7 +30,7 @@ import { Button } from "@mui/material";
 import LoadingAnimation from "../../components/LoadingAnimation/LoadingAnimation";
 import SchemaStore from "../../stores/SchemaStore";
 import moment from "moment";
-import { base64ToFile } from "../../utils/file";
+import { base64ToFile, downloadFile } from "../../utils/file";
 import AddEditSchema from "../../components/AddEditSchema";
 import { Schema } from "../../entities/schema";
 import { SchemaHistoryPopover } from "./SchemaHistory";
@@ -93,10 +93,8 @@ export const SchemasTable = () => {
     if (schemaFinded) setSelectedSchema(schemaFinded);
   };
 
-  const findSchemaAndFile = (schemaId: number) => {
-    const findedSchema = SchemaStore.schemas.find(
-      (schema) => schema.id === schemaId
-    );
+  const findSchemaAndFile = async (schemaId: number) => {
+    const findedSchema = await SchemaStore.getSchema(schemaId);
     setSelectedSchema(findedSchema || null);
     setFile(
       base64ToFile(
@@ -106,6 +104,14 @@ export const SchemasTable = () => {
     );
   };
 
+  const handleDownload = async (schema: Schema) => {
+    const file = await SchemaStore.getSchemaFile(
+      schema.id,
+      `${schema.name}.xsd`
+    );
+    if (file) downloadFile(file);
+  };
+
   const handleDelete = (schemaId: number) => {
     handleClick(schemaId);
     setDeleteDialogOpen(true);
@@ -128,6 +134,7 @@ export const SchemasTable = () => {
   ) => {
     setAnchorEl(event.currentTarget);
     handleClick(schemaId);
+    SchemaStore.getSchemaHistory(schemaId);
   };
 
   const handleRestore = (schema: Schema, history: FileHistory) => {
@@ -136,19 +143,19 @@ export const SchemasTable = () => {
     setRestoreDialogOpen(true);
   };
 
-  const handleViewDetails = (schemaId: number) => {
-    findSchemaAndFile(schemaId);
+  const handleViewDetails = async (schemaId: number) => {
+    await findSchemaAndFile(schemaId);
     setViewFile(true);
   };
 
-  const handleViewXMLVersion = (schema: Schema, history: FileHistory) => {
-    setSelectedSchema(schema);
-    setFile(
-      base64ToFile(
-        history?.sourceFile as string,
-        `${schema?.name}_${schema?.id}_${`version ${history.version}`}.xsd`
-      )
+  const handleViewXMLVersion = async (schema: Schema, history: FileHistory) => {
+    const versionFile = await SchemaStore.getSchemaFile(
+      schema.id,
+      `${schema?.name}_${schema?.id}_${`version ${history.version}`}.xsd`,
+      history.version
     );
+    setSelectedSchema(schema);
+    setFile(versionFile || null);
     setViewFile(true);
   };
 
@@ -177,7 +184,8 @@ export const SchemasTable = () => {
     if (selectedSchema && selectedHistory) {
       await SchemaStore.restoreSchema(
         selectedSchema.id as number,
-        selectedHistory.version as number
+        selectedHistory.version as number,
+        selectedSchema.lockVersion
       );
     }
     setRestoreDialogOpen(false);
@@ -237,10 +245,6 @@ export const SchemasTable = () => {
                 </TableHead>
                 <TableBody>
                   {SchemaStore.schemas.map((schema) => {
-                    const file = base64ToFile(
-                      schema.sourceFile as string,
-                      `${schema.name}_${schema.id}.xsd`
-                    );
                     return (
                       <TableRow key={schema.id}>
                         <TableCell>{schema.id}</TableCell>
@@ -259,8 +263,8 @@ export const SchemasTable = () => {
                             size="large"
                             edge="start"
                             sx={{ mr: 2 }}
-                            onClick={() => {
-                              handleClick(schema.id);
+                            onClick={async () => {
+                              await findSchemaAndFile(schema.id);
                               setDialogOpen(true);
                             }}
                           >
@@ -294,8 +298,7 @@ export const SchemasTable = () => {
                             size="large"
                             edge="start"
                             sx={{ mr: 2 }}
-                            href={URL.createObjectURL(file)}
-                            download={`${schema.name}.xsd`}
+                            onClick={() => handleDownload(schema)}
                           >
                             <FileDownload />
                           </IconButton>
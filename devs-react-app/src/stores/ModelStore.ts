@@ -1,15 +1,20 @@
 import { makeAutoObservable, runInAction } from "mobx";
-import { Model } from "../entities/model";
+import { Model, ModelFilter, ModelPage } from "../entities/model";
+import { FileHistory, FileHistoryPage } from "../entities/fileHistory";
 import { toast } from "react-toastify";
 import { StatusCodes } from "http-status-codes";
-import { API, GETHeader, POSTFormHeader } from "../utils/api";
+import { API, GETHeader, POSTFormHeader, handleWriteError, ifMatchHeader } from "../utils/api";
 import TagStore from "./TagStore";
 import { TOAST_PROPS } from "../utils/constants";
 
 class ModelStore {
   isLoading: boolean = false;
   models: Model[] = [];
+  modelFilter: ModelFilter = {};
+  modelsNextCursor: string | null = null;
   deletedModels: Model[] = [];
+  history: FileHistory[] = [];
+  historyNextBefore: number | null = null;
 
   constructor() {
     makeAutoObservable(this);
@@ -45,11 +50,11 @@ class ModelStore {
     }
   }
 
-  async updateModel(formData: FormData, modelId: number) {
+  async updateModel(formData: FormData, modelId: number, lockVersion?: number) {
     this.setIsLoading(true);
     try {
       const r = await API.put(`/models/update/${modelId}`, formData, {
-        headers: POSTFormHeader,
+        headers: { ...POSTFormHeader, ...ifMatchHeader(lockVersion) },
       });
       if (r.status === StatusCodes.OK) {
         toast.success("Model updated successfully", { hideProgressBar: true });
@@ -58,52 +63,46 @@ class ModelStore {
         return true;
       }
     } catch (e: any) {
-      if (e.response && e.response.status === 400) {
-        toast.error(e.response.data, TOAST_PROPS);
-      } else {
-        console.error("An error occurred:", e);
-      }
+      await handleWriteError(e, () => this.getModels());
       this.setIsLoading(false);
       return false;
     }
   }
 
-  async restoreModel(modelId: number, version: number) {
+  async restoreModel(modelId: number, version: number, lockVersion?: number) {
     this.setIsLoading(true);
     try {
       const r = await API.put(
         `/models/restore/${modelId}/to/${version}`,
         {},
-        { headers: GETHeader }
+        { headers: { ...GETHeader, ...ifMatchHeader(lockVersion) } }
       );
       if (r.status === StatusCodes.OK) {
         toast.success("Model updated successfully", { hideProgressBar: true });
         await this.getModels();
         await TagStore.getTags();
       }
-    } catch (error) {
-      console.error(error);
-      toast.error("Something went wrong", { hideProgressBar: true });
+    } catch (e: any) {
+      await handleWriteError(e, () => this.getModels());
     } finally {
       this.setIsLoading(false);
     }
   }
 
-  async markAsFavorite(modelId: number) {
+  async markAsFavorite(modelId: number, lockVersion?: number) {
     this.setIsLoading(true);
     try {
       const r = await API.put(
         `/models/favorite/${modelId}`,
         {},
-        { headers: GETHeader }
+        { headers: { ...GETHeader, ...ifMatchHeader(lockVersion) } }
       );
       if (r.status === StatusCodes.OK) {
         toast.success("Model updated successfully", { hideProgressBar: true });
         await this.getModels();
       }
-    } catch (error) {
-      console.error(error);
-      toast.error("Something went wrong", { hideProgressBar: true });
+    } catch (e: any) {
+      await handleWriteError(e, () => this.getModels());
     } finally {
       this.setIsLoading(false);
     }
@@ -146,18 +145,16 @@ class ModelStore {
     }
   }
 
-  async getModels() {
+  // Loads the first page of models matching the filter, or the current filter when none is given.
+  async getModels(filter?: ModelFilter) {
+    if (filter) {
+      this.setModelFilter(filter);
+    }
     this.setIsLoading(true);
     try {
-      const response = await API.get("/models", { headers: GETHeader });
-      const models: Model[] = response.data;
-      models.sort(function compare(a, b) {
-        var dateA = new Date(a?.updateDate || a.createDate).getTime();
-        var dateB = new Date(b?.updateDate || b.createDate).getTime();
-        return dateB - dateA;
-      });
-      this.setModels(models);
-      return response.data;
+      const page = await this.fetchModelPage(null);
+      this.setModelsPage(page.items, page.nextCursor);
+      return page.items;
     } catch (error) {
       console.error(error);
     } finally {
@@ -165,6 +162,84 @@ class ModelStore {
     }
   }
 
+  async loadMoreModels() {
+    if (!this.modelsNextCursor) {
+      return;
+    }
+    this.setIsLoading(true);
+    try {
+      const page = await this.fetchModelPage(this.modelsNextCursor);
+      this.setModelsPage([...this.models, ...page.items], page.nextCursor);
+    } catch (error) {
+      console.error(error);
+    } finally {
+      this.setIsLoading(false);
+    }
+  }
+
+  async fetchModelPage(cursor: string | null) {
+    const params = new URLSearchParams();
+    const { search, favorite, tags } = this.modelFilter;
+    if (search) params.append("search", search);
+    if (favorite !== undefined) params.append("favorite", String(favorite));
+    tags?.forEach((tag) => params.append("tags", tag));
+    if (cursor) params.append("cursor", cursor);
+
+    const response = await API.get("/models/page", {
+      headers: GETHeader,
+      params,
+    });
+    const page: ModelPage = response.data;
+    return page;
+  }
+
+  async getModel(modelId: number) {
+    try {
+      const response = await API.get(`/models/${modelId}`, {
+        headers: GETHeader,
+      });
+      const model: Model = response.data;
+      return model;
+    } catch (error) {
+      console.error(error);
+      toast.error("Something went wrong", { hideProgressBar: true });
+    }
+  }
+
+  async getModelHistory(modelId: number) {
+    this.setHistory([], null);
+    await this.loadMoreModelHistory(modelId);
+  }
+
+  async loadMoreModelHistory(modelId: number) {
+    try {
+      const response = await API.get(`/models/${modelId}/history`, {
+        headers: GETHeader,
+        params: { before: this.historyNextBefore ?? undefined },
+      });
+      const page: FileHistoryPage = response.data;
+      this.setHistory([...this.history, ...page.items], page.nextBefore);
+    } catch (error) {
+      console.error(error);
+    }
+  }
+
+  async getModelFile(modelId: number, filename: string, version?: number) {
+    const path = version
+      ? `/models/${modelId}/history/${version}/content`
+      : `/models/${modelId}/content`;
+    try {
+      const response = await API.get(path, {
+        headers: GETHeader,
+        responseType: "blob",
+      });
+      return new File([response.data], filename, { type: response.data.type });
+    } catch (error) {
+      console.error(error);
+      toast.error("Something went wrong", { hideProgressBar: true });
+    }
+  }
+
   async getDeletedModels() {
     this.setIsLoading(true);
     try {
@@ -196,6 +271,26 @@ class ModelStore {
       this.models = value;
     });
   }
+
+  setModelsPage(models: Model[], nextCursor: string | null) {
+    runInAction(() => {
+      this.models = models;
+      this.modelsNextCursor = nextCursor;
+    });
+  }
+
+  setModelFilter(filter: ModelFilter) {
+    runInAction(() => {
+      this.modelFilter = filter;
+    });
+  }
+
+  setHistory(history: FileHistory[], nextBefore: number | null) {
+    runInAction(() => {
+      this.history = history;
+      this.historyNextBefore = nextBefore;
+    });
+  }
 }
 
 export default new ModelStore();
@@ -1,14 +1,17 @@
 import { makeAutoObservable, runInAction } from "mobx";
 import { toast } from "react-toastify";
 import { StatusCodes } from "http-status-codes";
-import { API, GETHeader, POSTFormHeader } from "../utils/api";
+import { API, GETHeader, POSTFormHeader, handleWriteError, ifMatchHeader } from "../utils/api";
 import { Schema } from "../entities/schema";
+import { FileHistory, FileHistoryPage } from "../entities/fileHistory";
 import { TOAST_PROPS } from "../utils/constants";
 
 class SchemaStore {
   isLoading: boolean = false;
   schemas: Schema[] = [];
   deletedSchemas: Schema[] = [];
+  history: FileHistory[] = [];
+  historyNextBefore: number | null = null;
 
   constructor() {
     makeAutoObservable(this);
@@ -37,22 +40,18 @@ class SchemaStore {
     }
   }
 
-  async updateSchema(formData: FormData, schemaId: number) {
+  async updateSchema(formData: FormData, schemaId: number, lockVersion?: number) {
     this.setIsLoading(true);
     try {
       const r = await API.put(`/schemas/update/${schemaId}`, formData, {
-        headers: POSTFormHeader,
+        headers: { ...POSTFormHeader, ...ifMatchHeader(lockVersion) },
       });
       if (r.status === StatusCodes.OK) {
         toast.success("Schema updated successfully", { hideProgressBar: true });
         await this.getSchemas();
       }
     } catch (e: any) {
-      if (e && e.response.status === 400) {
-        toast.error(e.response.data, TOAST_PROPS);
-      } else {
-        console.error("An error occurred:", e);
-      }
+      await handleWriteError(e, () => this.getSchemas());
       this.setIsLoading(false);
       return false;
     }
@@ -77,21 +76,20 @@ class SchemaStore {
     }
   }
 
-  async restoreSchema(schemaId: number, version: number) {
+  async restoreSchema(schemaId: number, version: number, lockVersion?: number) {
     this.setIsLoading(true);
     try {
       const r = await API.put(
         `/schemas/restore/${schemaId}/to/${version}`,
         {},
-        { headers: GETHeader }
+        { headers: { ...GETHeader, ...ifMatchHeader(lockVersion) } }
       );
       if (r.status === StatusCodes.OK) {
         toast.success("Schema updated successfully", { hideProgressBar: true });
         await this.getSchemas();
       }
-    } catch (error) {
-      console.error(error);
-      toast.error("Something went wrong", { hideProgressBar: true });
+    } catch (e: any) {
+      await handleWriteError(e, () => this.getSchemas());
     } finally {
       this.setIsLoading(false);
     }
@@ -110,6 +108,53 @@ class SchemaStore {
     }
   }
 
+  async getSchema(schemaId: number) {
+    try {
+      const response = await API.get(`/schemas/${schemaId}`, {
+        headers: GETHeader,
+      });
+      const schema: Schema = response.data;
+      return schema;
+    } catch (error) {
+      console.error(error);
+      toast.error("Something went wrong", { hideProgressBar: true });
+    }
+  }
+
+  async getSchemaHistory(schemaId: number) {
+    this.setHistory([], null);
+    await this.loadMoreSchemaHistory(schemaId);
+  }
+
+  async loadMoreSchemaHistory(schemaId: number) {
+    try {
+      const response = await API.get(`/schemas/${schemaId}/history`, {
+        headers: GETHeader,
+        params: { before: this.historyNextBefore ?? undefined },
+      });
+      const page: FileHistoryPage = response.data;
+      this.setHistory([...this.history, ...page.items], page.nextBefore);
+    } catch (error) {
+      console.error(error);
+    }
+  }
+
+  async getSchemaFile(schemaId: number, filename: string, version?: number) {
+    const path = version
+      ? `/schemas/${schemaId}/history/${version}/content`
+      : `/schemas/${schemaId}/content`;
+    try {
+      const response = await API.get(path, {
+        headers: GETHeader,
+        responseType: "blob",
+      });
+      return new File([response.data], filename, { type: response.data.type });
+    } catch (error) {
+      console.error(error);
+      toast.error("Something went wrong", { hideProgressBar: true });
+    }
+  }
+
   async getDeletedSchemas() {
     this.setIsLoading(true);
     try {
@@ -141,6 +186,13 @@ class SchemaStore {
       this.schemas = value;
     });
   }
+
+  setHistory(history: FileHistory[], nextBefore: number | null) {
+    runInAction(() => {
+      this.history = history;
+      this.historyNextBefore = nextBefore;
+    });
+  }
 }
 
 export default new SchemaStore();
@@ -1,4 +1,7 @@
 import axios from "axios";
+import { toast } from "react-toastify";
+import { StatusCodes } from "http-status-codes";
+import { TOAST_PROPS } from "./constants";
 
 // export const apiBaseUrl = "http://localhost:8091/b01/api";
 
@@ -13,6 +16,25 @@ export const POSTFormHeader = {
   "Content-Type": "multipart/form-data",
 };
 
+// Sends the lock version a model or schema was read at, so the server refuses the write with 412 if it changed since.
+export const ifMatchHeader = (lockVersion?: number) =>
+  lockVersion !== undefined ? { "If-Match": `"${lockVersion}"` } : {};
+
+// A 412 means someone else changed the file first; reload fetches the list so the next attempt starts from it.
+// A 400 carries the server's reason, such as the validation errors of an uploaded file.
+export const handleWriteError = async (e: any, reload: () => Promise<unknown>) => {
+  const status = e?.response?.status;
+  if (status === StatusCodes.PRECONDITION_FAILED) {
+    toast.error(e.response.data, TOAST_PROPS);
+    await reload();
+  } else if (status === StatusCodes.BAD_REQUEST) {
+    toast.error(e.response.data, TOAST_PROPS);
+  } else {
+    console.error(e);
+    toast.error("Something went wrong", { hideProgressBar: true });
+  }
+};
+
 export const GETHeader = {
   Authorization: `Bearer ${token}`,
   "Content-Type": "application/json",
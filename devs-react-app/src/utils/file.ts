@@ -13,6 +13,15 @@ export function base64ToFile(base64String: string, filename: string) {
   return file;
 }
 
+export function downloadFile(file: File) {
+  const url = URL.createObjectURL(file);
+  const link = document.createElement('a');
+  link.href = url;
+  link.download = file.name;
+  link.click();
+  URL.revokeObjectURL(url);
+}
+
 export function readFileAsText(file: File) {
   const reader = new FileReader();
 